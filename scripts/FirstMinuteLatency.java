@@ -0,0 +1,129 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of the first minute of traffic after a fresh instance reports ready,
+ * used to compare starts with and without the warm-up. Waits for /ready, then
+ * runs a closed loop of reads (single gets, rosters, listings) and reports
+ * p50/p99/max per 10-second window. Seed the database first, e.g. with
+ * {@code java scripts/PoolLoadTest.java setup 20 250}, and restart the app.
+ *
+ *   java scripts/FirstMinuteLatency.java 60 8
+ *
+ * Set BASE_URL to target something other than http://localhost:8080.
+ */
+public class FirstMinuteLatency {
+
+    private static final String BASE_URL = System.getenv().getOrDefault("BASE_URL", "http://localhost:8080");
+    private static final HttpClient CLIENT = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        awaitReady();
+        int students = (int) count("/students/getall?size=1");
+        int courses = (int) count("/courses/getall?size=1");
+        List<ConcurrentLinkedQueue<Long>> windows = new ArrayList<>();
+        for (int i = 0; i < (seconds * 1_000_000_000L + WINDOW_NANOS - 1) / WINDOW_NANOS; i++) {
+            windows.add(new ConcurrentLinkedQueue<>());
+        }
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long requestStart = System.nanoTime();
+                    try {
+                        if (send(randomPath(students, courses)) >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    long end = System.nanoTime();
+                    int window = (int) ((requestStart - start) / WINDOW_NANOS);
+                    if (window < windows.size()) {
+                        windows.get(window).add(end - requestStart);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        for (int i = 0; i < windows.size(); i++) {
+            report(String.format("%3d-%3ds", i * 10, (i + 1) * 10), windows.get(i));
+        }
+        ConcurrentLinkedQueue<Long> all = new ConcurrentLinkedQueue<>();
+        windows.forEach(all::addAll);
+        report("overall", all);
+        System.out.println("errors=" + errors.get());
+    }
+
+    private static String randomPath(int students, int courses) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(10);
+        if (pick < 4) {
+            return "/students/get/" + (1 + random.nextInt(students));
+        }
+        if (pick < 6) {
+            return "/courses/get/" + (1 + random.nextInt(courses));
+        }
+        if (pick < 8) {
+            return "/students/getcourse/" + (1 + random.nextInt(courses));
+        }
+        return "/students/getall?size=20&mode=slice&page=" + random.nextInt(Math.max(1, students / 20));
+    }
+
+    private static void awaitReady() throws Exception {
+        while (true) {
+            try {
+                if (send("/ready") == 200) {
+                    return;
+                }
+            } catch (java.io.IOException notListening) {
+                // not started yet
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static long count(String listing) throws Exception {
+        String body = CLIENT.send(HttpRequest.newBuilder(URI.create(BASE_URL + listing)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        int start = body.indexOf("\"totalElements\":") + "\"totalElements\":".length();
+        int end = start;
+        while (Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(body.substring(start, end));
+    }
+
+    private static int send(String path) throws Exception {
+        return CLIENT.send(HttpRequest.newBuilder(URI.create(BASE_URL + path)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static void report(String name, ConcurrentLinkedQueue<Long> latencies) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            System.out.printf("%-9s no requests%n", name);
+            return;
+        }
+        System.out.printf("%-9s requests=%d p50=%.1fms p99=%.1fms max=%.1fms%n",
+                name, sorted.length, sorted[sorted.length / 2] / 1e6,
+                sorted[(int) (sorted.length * 0.99)] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,160 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load test for the /students/* endpoints, used to size the
+ * interactive and bulk connection pools. Interactive workers mix single
+ * student reads and edits; bulk workers page through large listings and
+ * multi-gets. Latencies are reported per class, followed by /stats/pools.
+ *
+ *   java scripts/PoolLoadTest.java setup 20 250
+ *   java scripts/PoolLoadTest.java run 30 16 16
+ *
+ * Set BASE_URL to target something other than http://localhost:8080.
+ */
+public class PoolLoadTest {
+
+    private static final String BASE_URL = System.getenv().getOrDefault("BASE_URL", "http://localhost:8080");
+    private static final HttpClient CLIENT = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("setup")) {
+            setup(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        } else if (args.length > 0 && args[0].equals("run")) {
+            run(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+        } else {
+            System.err.println("usage: setup <courses> <students-per-course> | run <seconds> <interactive-threads> <bulk-threads>");
+            System.exit(2);
+        }
+    }
+
+    private static void setup(int courses, int studentsPerCourse) throws Exception {
+        int student = 0;
+        for (int course = 1; course <= courses; course++) {
+            send("POST", "/courses/create", "{\"name\":\"course" + course + "\"}");
+            for (int i = 0; i < studentsPerCourse; i++, student++) {
+                send("POST", "/students/create", "{\"name\":\"s" + student + "\",\"email\":\"s" + student
+                        + "@example.com\",\"courseId\":" + course + "}");
+            }
+        }
+        System.out.println("created " + courses + " courses and " + student + " students");
+    }
+
+    private static void run(int seconds, int interactiveThreads, int bulkThreads) throws Exception {
+        int students = (int) count("/students/getall?size=1");
+        int courses = (int) count("/courses/getall?size=1");
+        send("DELETE", "/stats/pools", null);
+        Workload interactive = new Workload("interactive");
+        Workload bulk = new Workload("bulk");
+        ExecutorService executor = Executors.newFixedThreadPool(interactiveThreads + bulkThreads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < interactiveThreads; i++) {
+            executor.submit(() -> interactive.loop(deadline, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int id = 1 + random.nextInt(students);
+                if (random.nextInt(10) < 8) {
+                    return send("GET", "/students/get/" + id, null);
+                }
+                return send("PUT", "/students/edit/" + id, "{\"name\":\"n" + random.nextInt()
+                        + "\",\"email\":\"s" + (id - 1) + "@example.com\",\"courseId\":" + (1 + random.nextInt(courses)) + "}");
+            }));
+        }
+        for (int i = 0; i < bulkThreads; i++) {
+            executor.submit(() -> bulk.loop(deadline, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                if (random.nextBoolean()) {
+                    return send("GET", "/students/getall?size=500&page=" + random.nextInt(Math.max(1, students / 500)), null);
+                }
+                StringBuilder ids = new StringBuilder();
+                for (int j = 0; j < 500; j++) {
+                    ids.append(j == 0 ? "" : ",").append(1 + random.nextInt(students));
+                }
+                return send("GET", "/students/get?ids=" + ids, null);
+            }));
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        interactive.report(seconds);
+        bulk.report(seconds);
+        System.out.println(get("/stats/pools"));
+    }
+
+    private static long count(String listing) throws Exception {
+        String body = get(listing);
+        int start = body.indexOf("\"totalElements\":") + "\"totalElements\":".length();
+        int end = start;
+        while (Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(body.substring(start, end));
+    }
+
+    private static int send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(BASE_URL + path));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        request.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        return CLIENT.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String get(String path) throws Exception {
+        return CLIENT.send(HttpRequest.newBuilder(URI.create(BASE_URL + path)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private interface Call {
+        int execute() throws Exception;
+    }
+
+    private static final class Workload {
+
+        private final String name;
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        Workload(String name) {
+            this.name = name;
+        }
+
+        void loop(long deadline, Call call) {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    // 409 is an expected optimistic-lock conflict between concurrent edits
+                    int status = call.execute();
+                    if (status >= 400 && status != 409) {
+                        errors.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+                latencies.add(System.nanoTime() - start);
+            }
+        }
+
+        void report(int seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                System.out.printf("%-11s no requests%n", name);
+                return;
+            }
+            System.out.printf("%-11s requests=%d errors=%d throughput=%.0f/s p50=%.1fms p99=%.1fms max=%.1fms%n",
+                    name, sorted.length, errors.get(), (double) sorted.length / seconds,
+                    millis(sorted[sorted.length / 2]), millis(sorted[(int) (sorted.length * 0.99)]),
+                    millis(sorted[sorted.length - 1]));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
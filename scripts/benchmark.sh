@@ -0,0 +1,12 @@
+#!/usr/bin/env bash
+# Runs one of the standalone benchmarks under src/test/.../benchmark:
+#
+#   scripts/benchmark.sh RosterCodecBenchmark     JSON vs CBOR for a 1,000-student roster
+#   scripts/benchmark.sh RosterIndexFootprint     heap cost of the roster index per million students
+#   scripts/benchmark.sh NestedCreateBenchmark    per-student creates vs one nested course create
+#   scripts/benchmark.sh TransactionBenchmark     read-only vs read-write service reads, commits per update
+set -euo pipefail
+cd "$(dirname "$0")/.."
+sh mvnw -q -B test-compile dependency:build-classpath -Dmdep.outputFile=target/benchmark.classpath
+java ${JAVA_OPTS:--Xmx2g} -cp "target/test-classes:target/classes:$(cat target/benchmark.classpath)" \
+  "com.example.course_management_system.benchmark.${1:?benchmark class name}"
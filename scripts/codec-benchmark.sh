@@ -0,0 +1,6 @@
+#!/usr/bin/env bash
+# Runs RosterCodecBenchmark: JSON vs CBOR size and encode/decode cost for a
+# course with 1,000 students. Kept for existing callers; the benchmarks now
+# share scripts/benchmark.sh.
+set -euo pipefail
+exec "$(dirname "$0")/benchmark.sh" RosterCodecBenchmark
@@ -0,0 +1,9 @@
+#!/usr/bin/env bash
+# Reads the change journal written by the application (cms.journal.directory):
+#
+#   scripts/journal.sh print ~/.cms/journal [from-sequence]  one line per record
+#   scripts/journal.sh replay ~/.cms/journal [from-sequence] resulting courses and roster sizes
+set -euo pipefail
+cd "$(dirname "$0")/.."
+[ -d target/classes ] || sh mvnw -q -B compile
+java -cp target/classes com.example.course_management_system.journal.JournalTool "$@"
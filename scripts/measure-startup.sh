@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Starts the given command a few times and reports, from StartupTimer's log
+# lines, when the app became ready (warm-up included) and when it answered its
+# first request after that. Probes of $READY_URL are not counted, so the
+# first request is the one sent to $URL.
+#
+#   scripts/measure-startup.sh java -jar target/Course_Management_System-*.jar
+#   scripts/measure-startup.sh scripts/run-prod.sh
+set -uo pipefail
+RUNS=${RUNS:-3}
+URL=${URL:-http://localhost:8080/courses/get/1}
+READY_URL=${READY_URL:-http://localhost:8080/ready}
+LOG=$(mktemp)
+
+for run in $(seq 1 "$RUNS"); do
+  "$@" >"$LOG" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$READY_URL"; do sleep 0.05; done
+  curl -s -o /dev/null "$URL"
+  sleep 0.5
+  ready=$(grep -o 'ready [0-9]* ms' "$LOG" | grep -o '[0-9]*')
+  first=$(grep -o 'answered [0-9]* ms' "$LOG" | grep -o '[0-9]*')
+  echo "run $run: ready=${ready}ms first-request=${first}ms"
+  kill "$pid"; wait "$pid" 2>/dev/null
+done
+rm -f "$LOG"
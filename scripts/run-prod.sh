@@ -0,0 +1,9 @@
+#!/usr/bin/env bash
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+OUT=build/prod
+exec java -XX:SharedArchiveFile="$OUT/app.jsa" \
+     -Dspring.aot.enabled=true \
+     -Dspring.profiles.active=prod \
+     -jar "$OUT/app.jar" "$@"
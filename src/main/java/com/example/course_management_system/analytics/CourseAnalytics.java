@@ -0,0 +1,186 @@
+package com.example.course_management_system.analytics;
+
+import com.example.course_management_system.dto.CourseAnalyticsDTO;
+import com.example.course_management_system.dto.CourseAnalyticsDTO.CourseSize;
+import com.example.course_management_system.dto.CourseAnalyticsDTO.DomainSize;
+import com.example.course_management_system.dto.CourseAnalyticsDTO.EnrollmentBucket;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.repository.CourseCount;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.DomainCount;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enrollment statistics for administrators, computed in the background so a
+ * dashboard request never scans the tables.
+ * <p>
+ * Roster sizes and email domains are GROUP BY queries on every shard, merged
+ * here; course names are only loaded for the courses that are listed. Any
+ * committed change marks the figures stale, and the next scheduled refresh
+ * recomputes them. Without changes they are still recomputed every
+ * {@code cms.analytics.max-age}, to pick up writes made outside the application.
+ */
+@Slf4j
+@Component
+public class CourseAnalytics {
+
+    // Lower bounds of the enrollment distribution ranges
+    static final long[] BUCKETS = {0, 1, 10, 50, 100, 500, 1000};
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final StudentShards studentShards;
+    private final int top;
+    private final Duration maxAge;
+    private final Clock clock;
+    private volatile CourseAnalyticsDTO current;
+    private volatile boolean dirty = true;
+
+    @Autowired
+    public CourseAnalytics(CourseRepository courseRepository,
+                           StudentRepository studentRepository,
+                           StudentShards studentShards,
+                           @Value("${cms.analytics.top:10}") int top,
+                           @Value("${cms.analytics.max-age:10m}") Duration maxAge) {
+        this(courseRepository, studentRepository, studentShards, top, maxAge, Clock.systemUTC());
+    }
+
+    CourseAnalytics(CourseRepository courseRepository, StudentRepository studentRepository,
+                    StudentShards studentShards, int top, Duration maxAge, Clock clock) {
+        this.courseRepository = courseRepository;
+        this.studentRepository = studentRepository;
+        this.studentShards = studentShards;
+        this.top = top;
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    /** The latest figures, or null until the first refresh has finished. */
+    public CourseAnalyticsDTO getCurrent() {
+        return current;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        dirty = true;
+    }
+
+    @Scheduled(initialDelayString = "${cms.analytics.initial-delay-ms:5000}",
+            fixedDelayString = "${cms.analytics.refresh-ms:10000}")
+    public void refreshIfStale() {
+        CourseAnalyticsDTO analytics = current;
+        if (dirty || analytics == null
+                || analytics.getComputedAt().plus(maxAge).isBefore(clock.instant())) {
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        // Cleared first, so a change committed during the computation triggers another one
+        dirty = false;
+        try {
+            current = compute();
+        } catch (RuntimeException ex) {
+            dirty = true;
+            log.warn("Could not compute course analytics: {}", ex.getMessage());
+        }
+    }
+
+    private CourseAnalyticsDTO compute() {
+        Instant computedAt = clock.instant();
+        List<Long> courseIds = courseRepository.findAllIds();
+        Map<Long, Long> rosterSizes = new HashMap<>();
+        for (List<CourseCount> counts : studentShards.readAll(studentRepository::countByCourse)) {
+            counts.forEach(count -> rosterSizes.merge(count.courseId(), count.students(), Long::sum));
+        }
+        Map<String, Long> domains = new HashMap<>();
+        for (List<DomainCount> counts : studentShards.readAll(studentRepository::countByEmailDomain)) {
+            counts.forEach(count -> domains.merge(count.domain(), count.students(), Long::sum));
+        }
+
+        long[] sizes = new long[courseIds.size()];
+        long[] bucketCounts = new long[BUCKETS.length];
+        List<Long> emptyIds = new ArrayList<>();
+        long students = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            Long courseId = courseIds.get(i);
+            long size = rosterSizes.getOrDefault(courseId, 0L);
+            sizes[i] = size;
+            students += size;
+            bucketCounts[bucketOf(size)]++;
+            if (size == 0) {
+                emptyIds.add(courseId);
+            }
+        }
+        Arrays.sort(sizes);
+
+        List<Long> largestIds = rosterSizes.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Long> listedEmptyIds = emptyIds.stream().sorted().limit(top).toList();
+        List<Long> namedIds = new ArrayList<>(largestIds);
+        namedIds.addAll(listedEmptyIds);
+        Map<Long, String> names = courseRepository.findAllById(namedIds).stream()
+                .collect(Collectors.toMap(Course::getId, Course::getName));
+        Function<Long, CourseSize> toCourseSize =
+                id -> new CourseSize(id, names.get(id), rosterSizes.getOrDefault(id, 0L));
+
+        return CourseAnalyticsDTO.builder()
+                .computedAt(computedAt)
+                .courses(sizes.length)
+                .students(students)
+                .averageStudentsPerCourse(sizes.length == 0 ? 0 : (double) students / sizes.length)
+                .medianStudentsPerCourse(sizes.length == 0 ? 0 : sizes[(sizes.length - 1) / 2])
+                .maxStudentsPerCourse(sizes.length == 0 ? 0 : sizes[sizes.length - 1])
+                .enrollmentDistribution(toBuckets(bucketCounts))
+                .largestCourses(largestIds.stream().map(toCourseSize).toList())
+                .emptyCourseCount(emptyIds.size())
+                .emptyCourses(listedEmptyIds.stream().map(toCourseSize).toList())
+                .emailDomainCount(domains.size())
+                .emailDomains(domains.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                                .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                        .limit(top)
+                        .map(entry -> new DomainSize(entry.getKey(), entry.getValue()))
+                        .toList())
+                .build();
+    }
+
+    private static int bucketOf(long size) {
+        int bucket = BUCKETS.length - 1;
+        while (size < BUCKETS[bucket]) {
+            bucket--;
+        }
+        return bucket;
+    }
+
+    private static List<EnrollmentBucket> toBuckets(long[] counts) {
+        List<EnrollmentBucket> buckets = new ArrayList<>(BUCKETS.length);
+        for (int i = 0; i < BUCKETS.length; i++) {
+            Long max = i + 1 < BUCKETS.length ? BUCKETS[i + 1] - 1 : null;
+            buckets.add(new EnrollmentBucket(BUCKETS[i], max, counts[i]));
+        }
+        return buckets;
+    }
+}
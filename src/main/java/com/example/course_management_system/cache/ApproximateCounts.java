@@ -0,0 +1,45 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Row counts refreshed in the background so slice listings can report an
+ * approximate total without running COUNT(*) on the request path.
+ * A value of -1 means the count has not been taken yet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApproximateCounts {
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final StudentShards studentShards;
+    private volatile long courses = -1;
+    private volatile long students = -1;
+
+    @Scheduled(initialDelayString = "${cms.approximate-count.initial-delay-ms:5000}",
+            fixedDelayString = "${cms.approximate-count.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            courses = courseRepository.count();
+            students = studentShards.readAll(studentRepository::count).stream().mapToLong(Long::longValue).sum();
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh approximate counts: {}", ex.getMessage());
+        }
+    }
+
+    public long getCourses() {
+        return courses;
+    }
+
+    public long getStudents() {
+        return students;
+    }
+}
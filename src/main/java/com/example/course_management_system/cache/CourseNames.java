@@ -0,0 +1,119 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import com.example.course_management_system.event.RemoteEntityChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Course name to id map, so lookups by name are answered without the database
+ * once a name has been seen.
+ * <p>
+ * The course service adds names when courses are created or renamed and
+ * forgets them when courses are renamed or deleted, after the commit. Courses
+ * deleted by a background job, and courses renamed or deleted on another node,
+ * are forgotten through their change event. A
+ * lookup that was still running when any course changed does not record its
+ * result, because it may have read the old name. Once the map is full, names
+ * are still resolved but no longer added.
+ * <p>
+ * A course can be cached under several spellings of its name on a
+ * case-insensitive database, so the names cached for each id are kept as
+ * well, and forgetting a course touches only its own names.
+ */
+@Component
+public class CourseNames {
+
+    private final int maxEntries;
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> names = new HashMap<>();
+    private long changes;
+
+    public CourseNames(@Value("${cms.course-names.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /** Returns the id of the named course, running the lookup only when the name is not known yet. */
+    public Optional<Long> find(String name, Supplier<Optional<Long>> lookup) {
+        Long cached = ids.get(name);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes;
+        }
+        Optional<Long> found = lookup.get();
+        found.ifPresent(id -> record(name, id, changesBefore));
+        return found;
+    }
+
+    public synchronized void put(String name, Long id) {
+        changes++;
+        forgetId(id);
+        // A name already cached for another course is replaced even when the map is full
+        if (ids.size() < maxEntries || ids.containsKey(name)) {
+            store(name, id);
+        }
+    }
+
+    public synchronized void forget(Long id) {
+        changes++;
+        forgetId(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        if (event.getEntityType() != EntityType.COURSE) {
+            return;
+        }
+        // Local renames are applied by the course service; renames on other nodes only tell the id
+        if (event.getChangeType() == ChangeType.DELETED
+                || event.getChangeType() == ChangeType.UPDATED && event instanceof RemoteEntityChangeEvent) {
+            forget(event.getEntityId());
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized void record(String name, Long id, long changesBefore) {
+        if (changes == changesBefore && ids.size() < maxEntries) {
+            store(name, id);
+        }
+    }
+
+    private void store(String name, Long id) {
+        Long previous = ids.put(name, id);
+        if (previous != null && !previous.equals(id)) {
+            // The name now belongs to another course
+            removeName(previous, name);
+        }
+        names.computeIfAbsent(id, key -> new HashSet<>()).add(name);
+    }
+
+    private void removeName(Long id, String name) {
+        Set<String> cached = names.get(id);
+        if (cached != null && cached.remove(name) && cached.isEmpty()) {
+            names.remove(id);
+        }
+    }
+
+    private void forgetId(Long id) {
+        Set<String> cached = names.remove(id);
+        if (cached != null) {
+            cached.forEach(ids::remove);
+        }
+    }
+}
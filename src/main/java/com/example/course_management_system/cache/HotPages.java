@@ -0,0 +1,202 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the listing pages most clients ask for, so the common list views are
+ * answered without the database.
+ * <p>
+ * Only the shapes configured in {@code cms.hot-pages.courses} and
+ * {@code cms.hot-pages.students} are kept, written as
+ * {@code page:size:sortBy:sortDir} and separated by commas. A page is loaded
+ * by the first request for it; from then on the scheduler reloads it
+ * {@code cms.hot-pages.refresh-ahead} before it is {@code cms.hot-pages.ttl}
+ * old, so requests keep finding a fresh copy. A committed change that can
+ * show up in a listing drops its pages and has the scheduler reload them; a
+ * load that was still running at that point is not kept, because it may have
+ * read before the change.
+ */
+@Slf4j
+@Component
+public class HotPages {
+
+    public enum Listing { COURSES, STUDENTS }
+
+    private final Map<Listing, Set<Shape>> shapes = new EnumMap<>(Listing.class);
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final SingleFlight<Key, Page<?>> loads = new SingleFlight<>();
+    private final Map<Listing, Long> generations = new EnumMap<>(Listing.class);
+    private final TransactionOperations readTransaction;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final Clock clock;
+
+    @Autowired
+    public HotPages(PlatformTransactionManager transactionManager,
+                    @Value("${cms.hot-pages.courses:}") List<String> courseShapes,
+                    @Value("${cms.hot-pages.students:}") List<String> studentShapes,
+                    @Value("${cms.hot-pages.ttl:30s}") Duration ttl,
+                    @Value("${cms.hot-pages.refresh-ahead:10s}") Duration refreshAhead) {
+        this(readOnly(transactionManager), courseShapes, studentShapes, ttl, refreshAhead, Clock.systemUTC());
+    }
+
+    HotPages(TransactionOperations readTransaction, List<String> courseShapes, List<String> studentShapes,
+             Duration ttl, Duration refreshAhead, Clock clock) {
+        if (refreshAhead.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("cms.hot-pages.refresh-ahead must be shorter than cms.hot-pages.ttl");
+        }
+        this.readTransaction = readTransaction;
+        this.shapes.put(Listing.COURSES, parse(courseShapes));
+        this.shapes.put(Listing.STUDENTS, parse(studentShapes));
+        this.generations.put(Listing.COURSES, 0L);
+        this.generations.put(Listing.STUDENTS, 0L);
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.clock = clock;
+    }
+
+    public boolean isHot(Listing listing, Shape shape) {
+        return shapes.get(listing).contains(shape);
+    }
+
+    /**
+     * Returns the kept page for a hot shape, loading it when there is none or
+     * it has expired. Other shapes are loaded every time.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> get(Listing listing, Shape shape, Supplier<Page<T>> loader) {
+        if (!isHot(listing, shape)) {
+            return loader.get();
+        }
+        Key key = new Key(listing, shape);
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry((Supplier<Page<?>>) (Supplier<?>) loader));
+        Loaded loaded = entry.loaded;
+        if (loaded != null && clock.millis() - loaded.loadedAt() < ttlMillis) {
+            return (Page<T>) loaded.page();
+        }
+        return (Page<T>) loads.load(key, () -> load(key, entry));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        // Course listings embed their students; deleting a course deletes its students
+        invalidate(Listing.COURSES);
+        if (event.getEntityType() == EntityType.STUDENT || event.getChangeType() == ChangeType.DELETED) {
+            invalidate(Listing.STUDENTS);
+        }
+    }
+
+    /** Reloads the pages that were dropped or are about to expire. */
+    @Scheduled(initialDelayString = "${cms.hot-pages.refresh-ms:1000}", fixedDelayString = "${cms.hot-pages.refresh-ms:1000}")
+    public void refresh() {
+        long refreshAt = clock.millis() - (ttlMillis - refreshAheadMillis);
+        entries.forEach((key, entry) -> {
+            Loaded loaded = entry.loaded;
+            if (loaded != null && loaded.loadedAt() > refreshAt) {
+                return;
+            }
+            try {
+                loads.load(key, () -> readTransaction.execute(status -> load(key, entry)));
+            } catch (RuntimeException ex) {
+                log.warn("Could not refresh {} page {}: {}", key.listing(), key.shape(), ex.getMessage());
+            }
+        });
+    }
+
+    public int size() {
+        return (int) entries.values().stream().filter(entry -> entry.loaded != null).count();
+    }
+
+    private Page<?> load(Key key, Entry entry) {
+        long generation;
+        synchronized (this) {
+            generation = generations.get(key.listing());
+        }
+        long loadedAt = clock.millis();
+        Page<?> page = entry.loader.get();
+        synchronized (this) {
+            if (generations.get(key.listing()) == generation) {
+                entry.loaded = new Loaded(page, loadedAt);
+            }
+        }
+        return page;
+    }
+
+    private synchronized void invalidate(Listing listing) {
+        generations.merge(listing, 1L, Long::sum);
+        entries.forEach((key, entry) -> {
+            if (key.listing() == listing) {
+                entry.loaded = null;
+                loads.forget(key);
+            }
+        });
+    }
+
+    private static Set<Shape> parse(List<String> shapes) {
+        return shapes.stream()
+                .map(String::trim)
+                .filter(shape -> !shape.isEmpty())
+                .map(Shape::parse)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /** A listing request's paging and sort parameters. */
+    public record Shape(int page, int size, String sortBy, String sortDir) {
+
+        public Shape {
+            sortDir = sortDir.toLowerCase(Locale.ROOT);
+        }
+
+        static Shape parse(String value) {
+            String[] parts = value.split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Hot page shapes are page:size:sortBy:sortDir, got " + value);
+            }
+            return new Shape(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), parts[2], parts[3]);
+        }
+    }
+
+    private record Key(Listing listing, Shape shape) {
+    }
+
+    private record Loaded(Page<?> page, long loadedAt) {
+    }
+
+    private static final class Entry {
+
+        private final Supplier<Page<?>> loader;
+        private volatile Loaded loaded;
+
+        private Entry(Supplier<Page<?>> loader) {
+            this.loader = loader;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, short-lived record of ids that were looked up and not found, so
+ * repeated lookups of the same missing id skip the database.
+ * <p>
+ * A committed create forgets its id. A lookup that was still running when any
+ * create committed does not record its miss, because it may have read before
+ * that row was visible. Entries expire after the TTL, and the oldest entry is
+ * evicted once the cache is full.
+ */
+@Component
+public class MissingIds {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    // Insertion order is expiry order, as every entry lives for the same TTL
+    private final LinkedHashMap<Key, Long> expiries = new LinkedHashMap<>();
+    private long creates;
+
+    @Autowired
+    public MissingIds(@Value("${cms.missing-ids.max-entries:10000}") int maxEntries,
+                      @Value("${cms.missing-ids.ttl:30s}") Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    MissingIds(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the lookup unless the id is known to be missing, remembering the id
+     * when the lookup comes back empty.
+     */
+    public <T> Optional<T> find(EntityType type, Long id, Supplier<Optional<T>> lookup) {
+        long createsBefore;
+        synchronized (this) {
+            if (isMissing(type, id)) {
+                return Optional.empty();
+            }
+            createsBefore = creates;
+        }
+        Optional<T> found = lookup.get();
+        if (found.isEmpty()) {
+            record(new Key(type, id), createsBefore);
+        }
+        return found;
+    }
+
+    public synchronized boolean isMissing(EntityType type, Long id) {
+        Long expiresAt = expiries.get(new Key(type, id));
+        return expiresAt != null && expiresAt > clock.millis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        if (event.getChangeType() == EntityChangeEvent.ChangeType.CREATED) {
+            forget(event.getEntityType(), event.getEntityId());
+        }
+    }
+
+    public synchronized void forget(EntityType type, Long id) {
+        creates++;
+        expiries.remove(new Key(type, id));
+    }
+
+    public synchronized int size() {
+        return expiries.size();
+    }
+
+    private synchronized void record(Key key, long createsBefore) {
+        if (creates != createsBefore) {
+            return;
+        }
+        long now = clock.millis();
+        expiries.remove(key);
+        expiries.put(key, now + ttlMillis);
+        Iterator<Map.Entry<Key, Long>> iterator = expiries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Long> eldest = iterator.next();
+            if (eldest.getValue() > now && expiries.size() <= maxEntries) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private record Key(EntityType type, Long id) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.course_management_system.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves {@code application/cbor} with the same Jackson modules and settings
+ * as the JSON converter (Spring Data's Page support included). Spring's
+ * built-in CBOR converter uses a bare ObjectMapper instead. JSON stays the
+ * default because this converter is ordered after it.
+ */
+@Component
+public class CborMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    public CborMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        super(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.course_management_system.config;
+
+import com.example.course_management_system.datasource.BulkWorkloadFilter;
+import com.example.course_management_system.datasource.ShardRoutingDataSource;
+import com.example.course_management_system.datasource.WorkloadRoutingDataSource;
+import com.example.course_management_system.monitoring.PoolMetrics;
+import com.example.course_management_system.sharding.ShardSchema;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two Hikari pools on the same database: a small-query pool for the
+ * interactive endpoints and a separately sized one for listings and
+ * multi-gets, chosen per request by {@link BulkWorkloadFilter}.
+ * <p>
+ * When {@code cms.sharding.urls} lists extra student shards, each gets a
+ * pool configured from {@code cms.sharding.hikari.*}, and connections are
+ * routed by the current shard with the two pools above as shard 0.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties, PoolMetrics poolMetrics) {
+        return pool(properties, "interactive", poolMetrics);
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("cms.datasource.bulk.hikari")
+    public HikariDataSource bulkDataSource(DataSourceProperties properties, PoolMetrics poolMetrics) {
+        return pool(properties, "bulk", poolMetrics);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactive,
+                                 @Qualifier("bulkDataSource") DataSource bulk,
+                                 DataSourceProperties properties, PoolMetrics poolMetrics, Environment environment,
+                                 @Value("${cms.sharding.urls:}") String[] shardUrls) {
+        WorkloadRoutingDataSource home = new WorkloadRoutingDataSource(interactive, bulk);
+        if (shardUrls.length == 0) {
+            return home;
+        }
+        // Nested inside the shard router, it is not initialized as a bean
+        home.afterPropertiesSet();
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (String url : shardUrls) {
+            HikariDataSource shard = pool(properties, "shard-" + (shards.size() + 1), poolMetrics);
+            shard.setJdbcUrl(url);
+            Binder.get(environment).bind("cms.sharding.hikari", Bindable.ofInstance(shard));
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(home, shards);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(@Value("${cms.sharding.urls:}") String[] shardUrls) {
+        ShardSchema shardSchema = new ShardSchema(shardUrls.length + 1);
+        return hibernateProperties -> hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(shardSchema));
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkWorkloadFilter> bulkWorkloadFilter(
+            @Value("${cms.datasource.bulk.url-patterns}") String[] urlPatterns) {
+        FilterRegistrationBean<BulkWorkloadFilter> registration = new FilterRegistrationBean<>(new BulkWorkloadFilter());
+        registration.addUrlPatterns(urlPatterns);
+        return registration;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String poolName, PoolMetrics poolMetrics) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMetricsTrackerFactory(poolMetrics);
+        return dataSource;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.course_management_system.config;
+
+import com.example.course_management_system.idempotency.IdempotencyFilter;
+import com.example.course_management_system.idempotency.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(
+            @Value("${cms.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${cms.idempotency.ttl:24h}") Duration ttl) {
+        return new IdempotencyStore(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore idempotencyStore,
+            @Value("${cms.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, waitTimeoutMs));
+        registration.addUrlPatterns("/students/create", "/courses/create");
+        return registration;
+    }
+}
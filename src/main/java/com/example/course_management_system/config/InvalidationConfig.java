@@ -0,0 +1,37 @@
+package com.example.course_management_system.config;
+
+import com.example.course_management_system.invalidation.DatabaseInvalidationBus;
+import com.example.course_management_system.invalidation.InvalidationBus;
+import com.example.course_management_system.repository.EntityChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * {@code cms.invalidation.transport}: "database" for several nodes sharing one
+ * database, "none" for a single node. Each transport is its own bean with its
+ * concrete type, so the lazy initialization filter sees the database bus's
+ * scheduled poll and creates it at startup even on a node that never writes.
+ */
+@Configuration
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "cms.invalidation.transport", havingValue = "database")
+    public DatabaseInvalidationBus databaseInvalidationBus(
+            EntityChangeRepository entityChangeRepository,
+            @Value("${cms.invalidation.batch-size:500}") int batchSize,
+            @Value("${cms.invalidation.gap-timeout:5s}") Duration gapTimeout,
+            @Value("${cms.invalidation.retention:10m}") Duration retention) {
+        return new DatabaseInvalidationBus(entityChangeRepository, batchSize, gapTimeout, retention, Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cms.invalidation.transport", havingValue = "none", matchIfMissing = true)
+    public InvalidationBus noInvalidationBus() {
+        return InvalidationBus.NONE;
+    }
+}
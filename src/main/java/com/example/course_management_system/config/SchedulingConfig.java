@@ -0,0 +1,39 @@
+package com.example.course_management_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Default scheduler for the short periodic tasks: feed heartbeats,
+     * invalidation polls and cache refreshes. Declaring it replaces Boot's
+     * single-threaded one, so it reads Boot's pool size property itself.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        return scheduler("scheduling-", poolSize);
+    }
+
+    /**
+     * Course deletion and archiving run until their work is done, which can
+     * take minutes, so they get threads of their own instead of holding up
+     * the default scheduler.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler jobScheduler() {
+        return scheduler("jobs-", 2);
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setPoolSize(poolSize);
+        return scheduler;
+    }
+}
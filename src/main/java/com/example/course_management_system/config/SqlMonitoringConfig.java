@@ -0,0 +1,61 @@
+package com.example.course_management_system.config;
+
+import com.example.course_management_system.monitoring.RepositoryStatisticsInterceptor;
+import com.example.course_management_system.monitoring.SqlStatementFilter;
+import com.example.course_management_system.monitoring.SqlStatementListener;
+import com.example.course_management_system.monitoring.SqlStatistics;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import javax.sql.DataSource;
+
+/**
+ * Routes JDBC traffic through datasource-proxy so statements can be counted
+ * and slow ones logged, and instruments every Spring Data repository.
+ */
+@Configuration
+public class SqlMonitoringConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlMonitoringPostProcessor(
+            @Value("${cms.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMs,
+            ObjectProvider<SqlStatistics> sqlStatistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryStatisticsInterceptor(
+                                            repositoryInformation.getRepositoryInterface(), sqlStatistics))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlStatementListener(slowQueryThresholdMs))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(
+            SqlStatistics sqlStatistics,
+            @Value("${cms.sql.n-plus-one-threshold:20}") long nPlusOneThreshold) {
+        FilterRegistrationBean<SqlStatementFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementFilter(sqlStatistics, nPlusOneThreshold));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.course_management_system.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans with scheduled methods register their tasks when they are created,
+     * so they must stay eager even when lazy initialization is switched on.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> {
+            AtomicBoolean scheduled = new AtomicBoolean();
+            ReflectionUtils.doWithMethods(beanType,
+                    method -> scheduled.set(true),
+                    method -> method.isAnnotationPresent(Scheduled.class));
+            return scheduled.get();
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.course_management_system.controller;
+
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.service.ArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Read-only access to courses and students that CourseArchiver moved out of the live tables
+@RestController
+@RequestMapping("/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+
+    @GetMapping("/courses/get/{id}")
+    public ResponseEntity<CourseDTO> getArchivedCourseById(@PathVariable Long id) {
+        return ResponseEntity.ok(archiveService.getArchivedCourseById(id));
+    }
+    @GetMapping("/courses/get/{id}/students")
+    public ResponseEntity<RosterPageDTO> getArchivedCourseStudents(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "" + CourseDTO.STUDENT_PREVIEW_SIZE) int limit) {
+        return ResponseEntity.ok(archiveService.getArchivedCourseStudents(id, after, limit));
+    }
+    @GetMapping("/courses/getall")
+    public ResponseEntity<Page<CourseDTO>> getAllArchivedCourses(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(archiveService.getAllArchivedCourses(page, size, sortBy, sortDir));
+    }
+    @GetMapping("/students/get/{id}")
+    public ResponseEntity<StudentDTO> getArchivedStudentById(@PathVariable Long id) {
+        return ResponseEntity.ok(archiveService.getArchivedStudentById(id));
+    }
+}
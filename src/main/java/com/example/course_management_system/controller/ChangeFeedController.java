@@ -0,0 +1,22 @@
+package com.example.course_management_system.controller;
+
+import com.example.course_management_system.feed.ChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long courseId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(courseId, lastEventId);
+    }
+}
@@ -1,18 +1,30 @@
 package com.example.course_management_system.controller;
 
+import com.example.course_management_system.dto.BatchResult;
+import com.example.course_management_system.dto.CourseAnalyticsDTO;
 import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.CourseDeletionJobDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
 import com.example.course_management_system.service.CourseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/courses")
 @RequiredArgsConstructor
 public class CourseController {
 
+    static final String APPROXIMATE_TOTAL_HEADER = "X-Total-Count-Approximate";
+
     private final CourseService courseService;
 
     @PostMapping("/create")
@@ -21,28 +33,98 @@ public class CourseController {
         return new ResponseEntity<>(createdCourse, HttpStatus.CREATED);
     }
     @GetMapping("/get/{id}")
-    public ResponseEntity<CourseDTO> getCourseById(@PathVariable Long id) {
+    public ResponseEntity<?> getCourseById(@PathVariable Long id) {
+        Optional<byte[]> snapshot = courseService.findCourseSnapshot(id);
+        if (snapshot.isPresent()) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(snapshot.get());
+        }
         CourseDTO courseDTO = courseService.getCourseById(id);
         return ResponseEntity.ok(courseDTO);
     }
+    @GetMapping(value = "/get/{id}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<CourseDTO> getCourseByIdAsCbor(@PathVariable Long id) {
+        // Snapshots are pre-serialized JSON, so binary clients always go through the DTO
+        return ResponseEntity.ok(courseService.getCourseById(id));
+    }
+    @GetMapping("/get/{id}/students")
+    public ResponseEntity<RosterPageDTO> getCourseStudents(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "" + CourseDTO.STUDENT_PREVIEW_SIZE) int limit) {
+        // Keyset paging: "after" is the nextCursor of the previous page, or the course's nextStudentsCursor
+        return ResponseEntity.ok(courseService.getCourseStudents(id, after, limit));
+    }
+    @GetMapping("/by-name/{name}")
+    public ResponseEntity<?> getCourseByName(@PathVariable String name) {
+        return getCourseById(courseService.getCourseIdByName(name));
+    }
+    @GetMapping("/get")
+    public ResponseEntity<BatchResult<CourseDTO>> getCoursesByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(courseService.getCoursesByIds(ids));
+    }
     @GetMapping("/getall")
-    public ResponseEntity<Page<CourseDTO>> getAllCourses(
+    public ResponseEntity<Slice<CourseDTO>> getAllCourses(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "page") String mode) {
+        if (mode.equalsIgnoreCase("slice")) {
+            // No COUNT(*): hasNext comes from fetching one extra row
+            Slice<CourseDTO> courses = courseService.getCoursesSlice(page, size, sortBy, sortDir);
+            return ResponseEntity.ok()
+                    .header(APPROXIMATE_TOTAL_HEADER, String.valueOf(courseService.getApproximateCourseCount()))
+                    .body(courses);
+        }
         Page<CourseDTO> courses = courseService.getAllCourses(page, size, sortBy, sortDir);
         return ResponseEntity.ok(courses);
     }
+    @GetMapping("/analytics")
+    public ResponseEntity<CourseAnalyticsDTO> getAnalytics() {
+        // Precomputed in the background; until the first run there is nothing to serve
+        return courseService.getAnalytics()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
     @PutMapping("/edit/{id}")
     public ResponseEntity<CourseDTO> updateCourse(
             @PathVariable Long id, @RequestBody CourseDTO courseDTO) {
         CourseDTO updatedCourse = courseService.updateCourse(id, courseDTO);
         return ResponseEntity.ok(updatedCourse);
     }
+    @PatchMapping("/edit/{id}")
+    public ResponseEntity<CourseDTO> patchCourse(
+            @PathVariable Long id, @RequestBody CourseDTO patch) {
+        // Only the fields present in the body are changed
+        return ResponseEntity.ok(courseService.patchCourse(id, patch));
+    }
+    @PostMapping("/deactivate/{id}")
+    public ResponseEntity<Void> deactivateCourse(@PathVariable Long id) {
+        // Moved to /archive, with its students, once it has been inactive for the grace period
+        courseService.setCourseActive(id, false);
+        return ResponseEntity.noContent().build();
+    }
+    @PostMapping("/reactivate/{id}")
+    public ResponseEntity<Void> reactivateCourse(@PathVariable Long id) {
+        courseService.setCourseActive(id, true);
+        return ResponseEntity.noContent().build();
+    }
     @DeleteMapping("/del/{id}")
-    public ResponseEntity<String> deleteCourse(@PathVariable Long id) {
+    public ResponseEntity<?> deleteCourse(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "sync") String mode) {
+        if (mode.equalsIgnoreCase("async")) {
+            // Large rosters: students are removed in batches by a background job
+            CourseDeletionJobDTO job = courseService.startCourseDeletion(id);
+            return ResponseEntity.accepted().location(URI.create("/courses/deletions/" + job.getId())).body(job);
+        }
         courseService.deleteCourse(id);
         return new ResponseEntity<>("Course deleted",HttpStatus.OK);
     }
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<CourseDeletionJobDTO> getCourseDeletionJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(courseService.getCourseDeletionJob(jobId));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.course_management_system.controller;
+
+import com.example.course_management_system.journal.ChangeJournal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/stats/journal")
+@RequiredArgsConstructor
+public class JournalStatisticsController {
+
+    private final ChangeJournal changeJournal;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getJournalStatistics() {
+        return ResponseEntity.ok(changeJournal.getStatistics());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.course_management_system.controller;
+
+import com.example.course_management_system.monitoring.PoolMetrics;
+import com.example.course_management_system.monitoring.PoolStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/stats/pools")
+@RequiredArgsConstructor
+public class PoolStatisticsController {
+
+    private final PoolMetrics poolMetrics;
+
+    @GetMapping
+    public ResponseEntity<Map<String, PoolStatistics>> getPoolStatistics() {
+        return ResponseEntity.ok(poolMetrics.getPools());
+    }
+    @DeleteMapping
+    public ResponseEntity<String> clearStatistics() {
+        poolMetrics.clear();
+        return new ResponseEntity<>("Statistics cleared", HttpStatus.OK);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.course_management_system.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Readiness probe for load balancers: 503 until startup, including the
+ * warm-up, has finished.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReadinessController {
+
+    private final ApplicationAvailability applicationAvailability;
+
+    @GetMapping("/ready")
+    public ResponseEntity<String> getReadiness() {
+        ReadinessState state = applicationAvailability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseEntity<>(state.name(), status);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.course_management_system.controller;
+
+import com.example.course_management_system.monitoring.InvocationStats;
+import com.example.course_management_system.monitoring.SqlStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/stats/sql")
+@RequiredArgsConstructor
+public class SqlStatisticsController {
+
+    private final SqlStatistics sqlStatistics;
+
+    @GetMapping("/hibernate")
+    public ResponseEntity<Map<String, Object>> getHibernateStatistics() {
+        return ResponseEntity.ok(sqlStatistics.getHibernateStatistics());
+    }
+    @GetMapping("/repositories")
+    public ResponseEntity<Map<String, InvocationStats>> getRepositoryStatistics() {
+        return ResponseEntity.ok(sqlStatistics.getRepositoryMethods());
+    }
+    @GetMapping("/endpoints")
+    public ResponseEntity<Map<String, InvocationStats>> getEndpointStatistics() {
+        return ResponseEntity.ok(sqlStatistics.getEndpoints());
+    }
+    @DeleteMapping
+    public ResponseEntity<String> clearStatistics() {
+        sqlStatistics.clear();
+        return new ResponseEntity<>("Statistics cleared", HttpStatus.OK);
+    }
+}
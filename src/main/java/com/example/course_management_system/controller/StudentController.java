@@ -1,19 +1,25 @@
 package com.example.course_management_system.controller;
 
+import com.example.course_management_system.dto.BatchResult;
 import com.example.course_management_system.dto.StudentDTO;
 import com.example.course_management_system.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/students")
 @RequiredArgsConstructor
 public class StudentController {
 
+    static final String APPROXIMATE_TOTAL_HEADER = "X-Total-Count-Approximate";
+
     private final StudentService studentService;
 
     @PostMapping("/create")
@@ -26,17 +32,38 @@ public class StudentController {
         StudentDTO studentDTO = studentService.getStudentById(id);
         return ResponseEntity.ok(studentDTO);
     }
+    @GetMapping("/get")
+    public ResponseEntity<BatchResult<StudentDTO>> getStudentsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(studentService.getStudentsByIds(ids));
+    }
     @GetMapping("/getall")
-    public ResponseEntity<Page<StudentDTO>> getAllStudents(
+    public ResponseEntity<Slice<StudentDTO>> getAllStudents(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "page") String mode) {
+        if (mode.equalsIgnoreCase("slice")) {
+            // No COUNT(*): hasNext comes from fetching one extra row
+            Slice<StudentDTO> students = studentService.getStudentsSlice(page, size, sortBy, sortDir);
+            return ResponseEntity.ok()
+                    .header(APPROXIMATE_TOTAL_HEADER, String.valueOf(studentService.getApproximateStudentCount()))
+                    .body(students);
+        }
         Page<StudentDTO> students = studentService.getAllStudents(page, size, sortBy, sortDir);
         return ResponseEntity.ok(students);
     }
     @GetMapping("getcourse/{courseId}")
-    public ResponseEntity<List<StudentDTO>> getStudentsByCourseId(@PathVariable Long courseId) {
+    public ResponseEntity<?> getStudentsByCourseId(@PathVariable Long courseId) {
+        Optional<byte[]> snapshot = studentService.findRosterSnapshot(courseId);
+        if (snapshot.isPresent()) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(snapshot.get());
+        }
+        return ResponseEntity.ok(studentService.getStudentsByCourseId(courseId));
+    }
+    @GetMapping(value = "getcourse/{courseId}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<List<StudentDTO>> getStudentsByCourseIdAsCbor(@PathVariable Long courseId) {
+        // Snapshots are pre-serialized JSON, so binary clients always go through the DTO
         return ResponseEntity.ok(studentService.getStudentsByCourseId(courseId));
     }
     @PutMapping("/edit/{id}")
@@ -46,6 +73,12 @@ public class StudentController {
         return ResponseEntity.ok(updatedStudent);
     }
 
+    @PatchMapping("/edit/{id}")
+    public ResponseEntity<StudentDTO> patchStudent(
+            @PathVariable Long id, @RequestBody StudentDTO patch) {
+        // Only the fields present in the body are changed
+        return ResponseEntity.ok(studentService.patchStudent(id, patch));
+    }
     @DeleteMapping("/del/{id}")
     public ResponseEntity<String> deleteStudent(@PathVariable Long id) {
         studentService.deleteStudent(id);
@@ -0,0 +1,26 @@
+package com.example.course_management_system.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+
+/**
+ * Marks the requests it is mapped to as {@link Workload#BULK} for their
+ * whole duration.
+ */
+public class BulkWorkloadFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Workload previous = Workload.switchTo(Workload.BULK);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Workload.switchTo(previous);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.course_management_system.datasource;
+
+/**
+ * The database shard the current thread draws connections from. Shard
+ * {@link #HOME} is the main database; threads use it unless they switch.
+ */
+public final class Shard {
+
+    public static final int HOME = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = ThreadLocal.withInitial(() -> HOME);
+
+    private Shard() {
+    }
+
+    public static int current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Switches the current thread to the given shard and returns the one it
+     * replaced, so callers can restore it in a finally block.
+     */
+    public static int switchTo(int shard) {
+        int previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.course_management_system.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections from the database of the current {@link Shard}.
+ * The home data source keeps its own lifecycle; the extra shards' pools
+ * belong to this data source and are closed with it.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<? extends DataSource> extraShards;
+
+    public ShardRoutingDataSource(DataSource home, List<? extends DataSource> extraShards) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Shard.HOME, home);
+        for (int i = 0; i < extraShards.size(); i++) {
+            targets.put(Shard.HOME + 1 + i, extraShards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(home);
+        setLenientFallback(false);
+        this.extraShards = List.copyOf(extraShards);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Shard.current();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : extraShards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.course_management_system.datasource;
+
+/**
+ * The kind of work the current thread is doing, which decides the connection
+ * pool it draws from. Threads default to {@link #INTERACTIVE}.
+ */
+public enum Workload {
+
+    INTERACTIVE,
+    BULK;
+
+    private static final ThreadLocal<Workload> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Switches the current thread to the given workload and returns the one
+     * it replaced, so callers can restore it in a finally block.
+     */
+    public static Workload switchTo(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.course_management_system.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool that matches the current
+ * {@link Workload}, so bulk reads queue on their own pool instead of
+ * taking connections away from single-entity requests.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public WorkloadRoutingDataSource(DataSource interactive, DataSource bulk) {
+        setTargetDataSources(Map.of(Workload.INTERACTIVE, interactive, Workload.BULK, bulk));
+        setDefaultTargetDataSource(interactive);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Workload.current();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.course_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult<T> {
+
+    // Found items, in the order their ids were requested
+    private List<T> items;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,60 @@
+package com.example.course_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseAnalyticsDTO {
+
+    private Instant computedAt;
+    private long courses;
+    private long students;
+    private double averageStudentsPerCourse;
+    private long medianStudentsPerCourse;
+    private long maxStudentsPerCourse;
+    // Courses per roster size range, smallest range first
+    private List<EnrollmentBucket> enrollmentDistribution;
+    private List<CourseSize> largestCourses;
+    private long emptyCourseCount;
+    // Lowest ids first, capped like the other lists
+    private List<CourseSize> emptyCourses;
+    private long emailDomainCount;
+    private List<DomainSize> emailDomains;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EnrollmentBucket {
+
+        private long minStudents;
+        // Null for the open-ended last range
+        private Long maxStudents;
+        private long courses;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseSize {
+
+        private Long id;
+        private String name;
+        private long students;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DomainSize {
+
+        private String domain;
+        private long students;
+    }
+}
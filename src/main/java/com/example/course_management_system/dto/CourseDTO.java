@@ -1,14 +1,24 @@
 package com.example.course_management_system.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class CourseDTO {
 
+    // Students embedded in a course detail response; the rest are paged through /courses/get/{id}/students
+    public static final int STUDENT_PREVIEW_SIZE = 100;
+
     private Long id;
     private String name;
+    // Null in listings and batch lookups, which carry no roster
     private List<StudentDTO> students;
-}
\ No newline at end of file
+    // Passed as "after" to fetch the students following the embedded ones, null when none follow
+    private Long nextStudentsCursor;
+}
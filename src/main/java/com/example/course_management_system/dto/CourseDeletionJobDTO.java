@@ -0,0 +1,22 @@
+package com.example.course_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseDeletionJobDTO {
+
+    private Long id;
+    private Long courseId;
+    private String status;
+    private long studentsDeleted;
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
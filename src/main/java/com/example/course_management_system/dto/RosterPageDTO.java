@@ -0,0 +1,18 @@
+package com.example.course_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterPageDTO {
+
+    private List<StudentDTO> students;
+    // Passed as "after" for the next page, null on the last page
+    private Long nextCursor;
+}
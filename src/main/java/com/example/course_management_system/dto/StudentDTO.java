@@ -1,10 +1,14 @@
 package com.example.course_management_system.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Builder
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class StudentDTO {
 
     private Long id;
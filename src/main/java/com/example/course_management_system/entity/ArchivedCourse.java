@@ -0,0 +1,27 @@
+package com.example.course_management_system.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+// A course moved out of the live tables; keeps the id it had there
+@Table(name = "archived_courses")
+public class ArchivedCourse {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    private Instant inactiveSince;
+
+    @CreationTimestamp
+    private Instant archivedAt;
+}
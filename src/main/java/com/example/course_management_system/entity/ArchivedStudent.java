@@ -0,0 +1,48 @@
+package com.example.course_management_system.entity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+// A student moved out of the live tables with their course; keeps the id they had there
+@Table(name = "archived_students", indexes = @Index(name = "idx_archived_students_course", columnList = "course_id, id"))
+public class ArchivedStudent implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String email;
+
+    @CreationTimestamp
+    private Instant archivedAt;
+
+    // Assigned ids would otherwise make every save select the row first to tell insert from update
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
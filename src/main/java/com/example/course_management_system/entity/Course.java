@@ -1,6 +1,9 @@
 package com.example.course_management_system.entity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,6 +13,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+// UPDATE statements list only the columns that changed
+@DynamicUpdate
 @Table(name = "courses")
 public class Course {
 
@@ -17,9 +22,21 @@ public class Course {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Primitive and not null: Spring Data and Hibernate read a null version as a row that was never saved
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @Column(nullable = false, unique = true)
     private String name;
 
+    // Set when the course is marked inactive; CourseArchiver moves it to the archive tables later
+    private Instant inactiveSince;
+
+    // Set when CourseArchiver claims the course and renewed per batch; an archiving course cannot be reactivated
+    private Instant archivingSince;
+
     //BiDirectional
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL,orphanRemoval = true)
     @Builder.Default
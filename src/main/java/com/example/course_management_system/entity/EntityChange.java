@@ -0,0 +1,47 @@
+package com.example.course_management_system.entity;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * A committed change as broadcast to the other application nodes by the
+ * database invalidation bus. Rows are short-lived: they are deleted once
+ * older than {@code cms.invalidation.retention}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "entity_changes", indexes = @Index(name = "idx_entity_changes_created_at", columnList = "created_at"))
+public class EntityChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Node that made the change, which skips its own rows
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntityType entityType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeType changeType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    private Long courseId;
+
+    private Long previousCourseId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -1,6 +1,8 @@
 package com.example.course_management_system.entity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
@@ -8,6 +10,8 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Entity
+// UPDATE statements list only the columns that changed
+@DynamicUpdate
 @Table(name = "students")
 public class Student {
 
@@ -15,6 +19,12 @@ public class Student {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Primitive and not null: Spring Data and Hibernate read a null version as a row that was never saved
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @Column(nullable = false)
     private String name;
 
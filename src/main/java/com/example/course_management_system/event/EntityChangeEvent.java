@@ -0,0 +1,45 @@
+package com.example.course_management_system.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the service layer whenever a course or student is written.
+ * Listeners that react to committed state should use
+ * {@code @TransactionalEventListener} so they only see changes that stuck.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EntityChangeEvent {
+
+    public enum EntityType { COURSE, STUDENT }
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+
+    private final EntityType entityType;
+    private final ChangeType changeType;
+    private final Long entityId;
+    // Course the entity belongs to (the course itself for course events)
+    private final Long courseId;
+    // Course a student was moved away from, otherwise null
+    private final Long previousCourseId;
+
+    public static EntityChangeEvent course(ChangeType changeType, Long courseId) {
+        return new EntityChangeEvent(EntityType.COURSE, changeType, courseId, courseId, null);
+    }
+
+    public static EntityChangeEvent student(ChangeType changeType, Long studentId, Long courseId) {
+        return new EntityChangeEvent(EntityType.STUDENT, changeType, studentId, courseId, null);
+    }
+
+    public static EntityChangeEvent studentMoved(Long studentId, Long courseId, Long previousCourseId) {
+        Long previous = courseId != null && courseId.equals(previousCourseId) ? null : previousCourseId;
+        return new EntityChangeEvent(EntityType.STUDENT, ChangeType.UPDATED, studentId, courseId, previous);
+    }
+
+    public boolean touchesCourse(Long id) {
+        return id.equals(courseId) || id.equals(previousCourseId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.course_management_system.event;
+
+/**
+ * A change committed by another application node, delivered through the
+ * {@link com.example.course_management_system.invalidation.InvalidationBus}.
+ * Caches treat it like a local change; listeners that record this node's own
+ * writes, such as the change journal, skip it.
+ */
+public class RemoteEntityChangeEvent extends EntityChangeEvent {
+
+    public RemoteEntityChangeEvent(EntityType entityType, ChangeType changeType, Long entityId,
+                                   Long courseId, Long previousCourseId) {
+        super(entityType, changeType, entityId, courseId, previousCourseId);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.course_management_system.exception;
+
+
+/**
+ * A request the client has to change before retrying, such as too many ids in
+ * one batch; always ends as a 400. Only the message reaches the response, so
+ * no stack trace is captured.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message){
+        super(message, null, false, false);
+    }
+}
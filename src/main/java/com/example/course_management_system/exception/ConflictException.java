@@ -0,0 +1,15 @@
+package com.example.course_management_system.exception;
+
+
+/**
+ * A request the resource's current state does not allow, such as reactivating
+ * a course the archiver is moving; always ends as a 409. The same request may
+ * succeed once the state changes. The refusal is routine, so it is thrown
+ * without filling in a stack trace.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message){
+        super(message, null, false, false);
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.course_management_system.exception;
 
 
+/**
+ * Carries no stack trace: it is an expected outcome that always ends as a 404,
+ * and capturing the trace was most of the cost of answering a miss.
+ */
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message){
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.example.course_management_system.feed;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory change feed pushed to Server-Sent Events subscribers.
+ * <p>
+ * Committed changes get a sequence number and are kept in a bounded buffer so
+ * reconnecting clients can resume from their {@code Last-Event-ID}. A client
+ * whose id has left the buffer, or that the feed never issued (after a
+ * restart, or from another node), is sent a {@code reset} event first. Delivery
+ * runs on a single dispatcher thread; idle subscribers are parked async
+ * requests and hold no thread of their own.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final Deque<FeedEntry> buffer = new ArrayDeque<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private long lastSequence;
+
+    @Autowired
+    public ChangeFeed(@Value("${cms.change-feed.buffer-size:1000}") int bufferSize,
+                      @Value("${cms.change-feed.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this(bufferSize, emitterTimeoutMs, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ChangeFeed(int bufferSize, long emitterTimeoutMs, ExecutorService dispatcher) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.dispatcher = dispatcher;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        synchronized (buffer) {
+            FeedEntry entry = new FeedEntry(++lastSequence, event);
+            buffer.addLast(entry);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            // Taken now: a subscriber added before this dispatch runs gets the entry from its replay
+            List<Subscription> targets = List.copyOf(subscriptions);
+            dispatcher.execute(() -> targets.forEach(subscription -> deliver(subscription, entry)));
+        }
+    }
+
+    public SseEmitter subscribe(Long courseId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscription subscription = new Subscription(emitter, courseId);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(ex -> subscriptions.remove(subscription));
+
+        synchronized (buffer) {
+            List<FeedEntry> replay = lastEventId == null ? List.of() : entriesAfter(lastEventId);
+            String reset = lastEventId == null ? null : resetReason(lastEventId);
+            subscriptions.add(subscription);
+            // Every entry up to lastSequence is in the replay and every later one is dispatched
+            // to this subscriber after it, so each arrives once and in sequence order.
+            dispatcher.execute(() -> {
+                if (reset != null) {
+                    send(subscription, SseEmitter.event().name("reset").data(reset));
+                }
+                replay.forEach(entry -> deliver(subscription, entry));
+            });
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${cms.change-feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!subscriptions.isEmpty()) {
+            dispatcher.execute(() -> subscriptions.forEach(subscription ->
+                    send(subscription, SseEmitter.event().comment("keep-alive"))));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+        subscriptions.clear();
+    }
+
+    /** Why entries after {@code lastEventId} cannot all be replayed, or null when they can. */
+    private String resetReason(long lastEventId) {
+        if (lastEventId > lastSequence) {
+            // Issued before a restart, or by another node
+            return "unknown-event-id";
+        }
+        long firstBuffered = buffer.isEmpty() ? lastSequence + 1 : buffer.peekFirst().getId();
+        return firstBuffered > lastEventId + 1 ? "buffer-overrun" : null;
+    }
+
+    private List<FeedEntry> entriesAfter(long lastEventId) {
+        List<FeedEntry> entries = new ArrayList<>();
+        for (FeedEntry entry : buffer) {
+            if (entry.getId() > lastEventId) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private void deliver(Subscription subscription, FeedEntry entry) {
+        if (subscription.courseId() != null && !entry.getEvent().touchesCourse(subscription.courseId())) {
+            return;
+        }
+        send(subscription, SseEmitter.event()
+                .id(String.valueOf(entry.getId()))
+                .name(entry.getEvent().getChangeType().name().toLowerCase())
+                .data(entry.getEvent(), MediaType.APPLICATION_JSON));
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter().send(event);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Dropping change feed subscriber: {}", ex.getMessage());
+            subscriptions.remove(subscription);
+            subscription.emitter().completeWithError(ex);
+        }
+    }
+
+    private record Subscription(SseEmitter emitter, Long courseId) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.course_management_system.feed;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FeedEntry {
+
+    private final long id;
+    private final EntityChangeEvent event;
+}
@@ -0,0 +1,89 @@
+package com.example.course_management_system.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded, expiring record of requests made with an {@code Idempotency-Key}.
+ * <p>
+ * The first request for a key claims it and later completes it with its
+ * response; requests arriving meanwhile get the same future and wait on it.
+ * Entries expire after the TTL and the least recently used completed entry
+ * is evicted once the store is full.
+ */
+public class IdempotencyStore {
+
+    public enum Status { CLAIMED, DUPLICATE, MISMATCH }
+
+    public record Claim(Status status, CompletableFuture<StoredResponse> response) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public IdempotencyStore(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    public synchronized Claim claim(String key, String fingerprint) {
+        long now = clock.millis();
+        Entry existing = entries.get(key);
+        if (existing != null && existing.expiresAt > now) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return new Claim(Status.MISMATCH, existing.response);
+            }
+            return new Claim(Status.DUPLICATE, existing.response);
+        }
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>(), now + ttlMillis);
+        entries.put(key, entry);
+        evict(now);
+        return new Claim(Status.CLAIMED, entry.response);
+    }
+
+    public synchronized void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response.complete(response);
+        }
+    }
+
+    /** Forgets the key so a retry runs the request again, and releases any waiters. */
+    public synchronized void release(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.response.complete(null);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            if (eldest.expiresAt <= now) {
+                iterator.remove();
+            } else if (entries.size() > maxEntries) {
+                // Requests still running keep their entry, so their retries keep waiting for them
+                if (eldest.response.isDone()) {
+                    iterator.remove();
+                }
+            } else {
+                break;
+            }
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<StoredResponse> response, long expiresAt) {
+    }
+}
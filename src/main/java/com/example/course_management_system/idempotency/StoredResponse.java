@@ -0,0 +1,13 @@
+package com.example.course_management_system.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StoredResponse {
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+}
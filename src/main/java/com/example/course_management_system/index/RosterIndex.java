@@ -0,0 +1,345 @@
+package com.example.course_management_system.index;
+
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.repository.StudentRow;
+import com.example.course_management_system.sharding.StudentShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory course-to-students index that answers roster reads without a
+ * query. Each course maps to a sorted {@code long[]} of student ids, and the
+ * students themselves live in a {@link StudentRecordStore}.
+ * <p>
+ * The index is built from flat keyset-paged rows, shard by shard, once the
+ * application is ready. After that, every committed student or course change re-reads the
+ * affected row and patches the index; a created course reads its whole roster
+ * at once, for courses created together with their students, and a deleted
+ * student is removed without a query. Changes that commit while the build is
+ * running are queued and replayed before the index starts answering, and
+ * until then callers fall back to the database.
+ * <p>
+ * Rows are read outside the writers' mutex. Each change takes a ticket under
+ * the mutex first, and its read is only applied if no later change to the
+ * same student or course took a ticket meanwhile: that later change reads
+ * after it, so its row is at least as new.
+ */
+@Slf4j
+@Component
+public class RosterIndex {
+
+    private static final int BUILD_PAGE_SIZE = 5000;
+    private static final long[] NO_STUDENTS = new long[0];
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final StudentShards studentShards;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guards the tickets and the build state; held only briefly, never across a query
+    private final Object writeMutex = new Object();
+    private final List<Change> pendingChanges = new ArrayList<>();
+    // The latest ticket per student and course whose change is not applied yet
+    private final Map<Long, Long> studentTickets = new HashMap<>();
+    private final Map<Long, Long> courseTickets = new HashMap<>();
+    // Courses with a ticket whose students changed meanwhile, so a roster being read may be stale
+    private final Set<Long> coursesChangedDuringRead = new HashSet<>();
+    private long tickets;
+    private StudentRecordStore students = new StudentRecordStore(0);
+    private Map<Long, long[]> rosters = new HashMap<>();
+    private boolean building;
+    // Changes are applied as they commit; set before ready, while queued changes are replayed
+    private boolean patching;
+    private volatile boolean ready;
+
+    public RosterIndex(StudentRepository studentRepository, CourseRepository courseRepository,
+                       StudentShards studentShards, @Value("${cms.roster-index.enabled:false}") boolean enabled) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.studentShards = studentShards;
+        this.enabled = enabled;
+    }
+
+    /** The course's students in id order, or empty when the index is off, not built yet or has no such course. */
+    public Optional<List<StudentDTO>> findRoster(Long courseId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            long[] studentIds = rosters.get(courseId);
+            if (studentIds == null) {
+                return Optional.empty();
+            }
+            List<StudentDTO> roster = new ArrayList<>(studentIds.length);
+            for (long studentId : studentIds) {
+                roster.add(students.get(studentId));
+            }
+            return Optional.of(roster);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return students.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (writeMutex) {
+            if (!enabled || building) {
+                return;
+            }
+            building = true;
+            patching = false;
+            ready = false;
+        }
+        try {
+            long start = System.nanoTime();
+            Map<Long, LongBuffer> courses = new HashMap<>();
+            for (Long courseId : courseRepository.findAllIds()) {
+                courses.put(courseId, new LongBuffer());
+            }
+            StudentRecordStore builtStudents = new StudentRecordStore(0);
+            for (int shard = 0; shard < studentShards.count(); shard++) {
+                int source = shard;
+                List<StudentRow> page = studentShards.read(source,
+                        () -> studentRepository.findRowsAfter(0L, Limit.of(BUILD_PAGE_SIZE)));
+                while (!page.isEmpty()) {
+                    for (StudentRow row : page) {
+                        builtStudents.put(row.id(), row.courseId(), row.name(), row.email());
+                        // Rows arrive in id order and a course's students share a shard, so each roster ends up sorted
+                        courses.computeIfAbsent(row.courseId(), id -> new LongBuffer()).add(row.id());
+                    }
+                    long afterId = page.get(page.size() - 1).id();
+                    page = studentShards.read(source,
+                            () -> studentRepository.findRowsAfter(afterId, Limit.of(BUILD_PAGE_SIZE)));
+                }
+            }
+            Map<Long, long[]> builtRosters = new HashMap<>();
+            courses.forEach((courseId, studentIds) -> builtRosters.put(courseId, studentIds.toArray()));
+            List<Change> replay;
+            synchronized (writeMutex) {
+                lock.writeLock().lock();
+                try {
+                    students = builtStudents;
+                    rosters = builtRosters;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                replay = new ArrayList<>(pendingChanges);
+                pendingChanges.clear();
+                building = false;
+                patching = true;
+            }
+            // Changes committing from here on are applied directly; their tickets supersede queued ones
+            replay.forEach(this::apply);
+            ready = true;
+            log.info("Roster index built: {} students in {} courses in {} ms", builtStudents.size(),
+                    builtRosters.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (writeMutex) {
+                pendingChanges.clear();
+                studentTickets.clear();
+                courseTickets.clear();
+                coursesChangedDuringRead.clear();
+                building = false;
+                patching = false;
+            }
+            log.warn("Roster index build failed, rosters will be read from the database", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        boolean course = event.getEntityType() == EntityChangeEvent.EntityType.COURSE;
+        if (course && event.getChangeType() == EntityChangeEvent.ChangeType.UPDATED) {
+            // A rename does not touch rosters
+            return;
+        }
+        Change change;
+        synchronized (writeMutex) {
+            if (!building && !patching) {
+                return;
+            }
+            change = new Change(event, ++tickets);
+            (course ? courseTickets : studentTickets).put(event.getEntityId(), change.ticket());
+            if (!course) {
+                markIfReading(event.getCourseId());
+                markIfReading(event.getPreviousCourseId());
+            }
+            if (building) {
+                pendingChanges.add(change);
+                return;
+            }
+        }
+        apply(change);
+    }
+
+    private void apply(Change change) {
+        EntityChangeEvent event = change.event();
+        if (event.getEntityType() == EntityChangeEvent.EntityType.COURSE) {
+            applyCourseChange(change);
+            return;
+        }
+        Optional<StudentRow> row;
+        if (event.getChangeType() == EntityChangeEvent.ChangeType.DELETED) {
+            row = Optional.empty();
+        } else if (event.getChangeType() == EntityChangeEvent.ChangeType.CREATED && isIndexed(event.getEntityId())) {
+            // Already read with the roster its course was created with; later changes arrive as updates
+            synchronized (writeMutex) {
+                studentTickets.remove(event.getEntityId(), change.ticket());
+            }
+            return;
+        } else {
+            row = studentShards.read(studentShards.shardOfStudent(event.getEntityId()),
+                    () -> studentRepository.findRowById(event.getEntityId()));
+        }
+        synchronized (writeMutex) {
+            if (!studentTickets.remove(event.getEntityId(), change.ticket())) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                long previousCourseId = row.isPresent()
+                        ? students.put(row.get().id(), row.get().courseId(), row.get().name(), row.get().email())
+                        : students.remove(event.getEntityId());
+                if (previousCourseId != 0 && (row.isEmpty() || previousCourseId != row.get().courseId())) {
+                    rosters.computeIfPresent(previousCourseId,
+                            (id, studentIds) -> without(studentIds, event.getEntityId()));
+                }
+                row.ifPresent(student -> rosters.merge(student.courseId(), new long[]{student.id()},
+                        (studentIds, added) -> with(studentIds, student.id())));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void applyCourseChange(Change change) {
+        EntityChangeEvent event = change.event();
+        Long courseId = event.getEntityId();
+        while (true) {
+            // A course can be created with its roster, read here in one query instead of one per student event
+            List<StudentRow> roster = event.getChangeType() == EntityChangeEvent.ChangeType.CREATED
+                    ? studentShards.read(studentShards.shardOf(courseId),
+                            () -> studentRepository.findRowsByCourseId(courseId))
+                    : List.of();
+            synchronized (writeMutex) {
+                if (coursesChangedDuringRead.remove(courseId)
+                        && change.ticket() == courseTickets.getOrDefault(courseId, 0L)) {
+                    // A student joined or left the course while its roster was read
+                    continue;
+                }
+                if (!courseTickets.remove(courseId, change.ticket())) {
+                    return;
+                }
+                lock.writeLock().lock();
+                try {
+                    if (event.getChangeType() == EntityChangeEvent.ChangeType.CREATED) {
+                        LongBuffer studentIds = new LongBuffer();
+                        for (StudentRow row : roster) {
+                            students.put(row.id(), row.courseId(), row.name(), row.email());
+                            studentIds.add(row.id());
+                        }
+                        rosters.putIfAbsent(courseId, roster.isEmpty() ? NO_STUDENTS : studentIds.toArray());
+                    } else {
+                        // Students are removed with their course by the cascade
+                        long[] studentIds = rosters.remove(courseId);
+                        if (studentIds != null) {
+                            for (long studentId : studentIds) {
+                                students.remove(studentId);
+                            }
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private void markIfReading(Long courseId) {
+        if (courseId != null && courseTickets.containsKey(courseId)) {
+            coursesChangedDuringRead.add(courseId);
+        }
+    }
+
+    private boolean isIndexed(long studentId) {
+        lock.readLock().lock();
+        try {
+            return students.courseOf(studentId) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long[] with(long[] studentIds, long studentId) {
+        int index = Arrays.binarySearch(studentIds, studentId);
+        if (index >= 0) {
+            return studentIds;
+        }
+        int insertAt = -index - 1;
+        long[] result = new long[studentIds.length + 1];
+        System.arraycopy(studentIds, 0, result, 0, insertAt);
+        result[insertAt] = studentId;
+        System.arraycopy(studentIds, insertAt, result, insertAt + 1, studentIds.length - insertAt);
+        return result;
+    }
+
+    private static long[] without(long[] studentIds, long studentId) {
+        int index = Arrays.binarySearch(studentIds, studentId);
+        if (index < 0) {
+            return studentIds;
+        }
+        long[] result = new long[studentIds.length - 1];
+        System.arraycopy(studentIds, 0, result, 0, index);
+        System.arraycopy(studentIds, index + 1, result, index, studentIds.length - index - 1);
+        return result;
+    }
+
+    private static final class LongBuffer {
+
+        private long[] values = new long[8];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private record Change(EntityChangeEvent event, long ticket) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.course_management_system.index;
+
+import com.example.course_management_system.dto.StudentDTO;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Open-addressing map from student id to course id, name and email, held in
+ * parallel arrays instead of one object per student. Name and email share a
+ * single UTF-8 byte array. Not thread-safe; {@link RosterIndex} guards it.
+ */
+final class StudentRecordStore {
+
+    private static final double MAX_LOAD = 0.6;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private long[] ids;
+    private long[] courseIds;
+    private byte[][] texts;
+    private int size;
+
+    StudentRecordStore(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) * 2 - 1));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Course of the student, or 0 when the student is not stored. */
+    long courseOf(long id) {
+        int slot = slotOf(id);
+        return ids[slot] == id ? courseIds[slot] : 0;
+    }
+
+    /** Stores the student and returns the course it was in before, or 0 if it is new. */
+    long put(long id, long courseId, String name, String email) {
+        if ((size + 1) > ids.length * MAX_LOAD) {
+            resize();
+        }
+        int slot = slotOf(id);
+        long previousCourseId = ids[slot] == id ? courseIds[slot] : 0;
+        if (ids[slot] != id) {
+            ids[slot] = id;
+            size++;
+        }
+        courseIds[slot] = courseId;
+        texts[slot] = encode(name, email);
+        return previousCourseId;
+    }
+
+    /** Removes the student and returns its course, or 0 if it was not stored. */
+    long remove(long id) {
+        int slot = slotOf(id);
+        if (ids[slot] != id) {
+            return 0;
+        }
+        long courseId = courseIds[slot];
+        size--;
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int mask = ids.length - 1;
+        int free = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (ids[next] == 0) {
+                break;
+            }
+            int home = home(ids[next]);
+            boolean reachable = free <= next ? free < home && home <= next : free < home || home <= next;
+            if (!reachable) {
+                ids[free] = ids[next];
+                courseIds[free] = courseIds[next];
+                texts[free] = texts[next];
+                free = next;
+            }
+        }
+        ids[free] = 0;
+        courseIds[free] = 0;
+        texts[free] = null;
+        return courseId;
+    }
+
+    /** The student as a DTO, or null when it is not stored. */
+    StudentDTO get(long id) {
+        int slot = slotOf(id);
+        if (ids[slot] != id) {
+            return null;
+        }
+        byte[] text = texts[slot];
+        int nameLength = ((text[0] & 0xFF) << 8) | (text[1] & 0xFF);
+        int emailOffset = 2 + (nameLength == NULL_LENGTH ? 0 : nameLength);
+        String name = nameLength == NULL_LENGTH ? null : new String(text, 2, nameLength, StandardCharsets.UTF_8);
+        String email = text[emailOffset] == 0 ? null
+                : new String(text, emailOffset + 1, text.length - emailOffset - 1, StandardCharsets.UTF_8);
+        return new StudentDTO(id, name, email, courseIds[slot]);
+    }
+
+    private static byte[] encode(String name, String email) {
+        byte[] nameBytes = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+        byte[] emailBytes = email == null ? new byte[0] : email.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length >= NULL_LENGTH) {
+            throw new IllegalArgumentException("Student name too long to index");
+        }
+        byte[] text = new byte[3 + nameBytes.length + emailBytes.length];
+        int nameLength = name == null ? NULL_LENGTH : nameBytes.length;
+        text[0] = (byte) (nameLength >>> 8);
+        text[1] = (byte) nameLength;
+        System.arraycopy(nameBytes, 0, text, 2, nameBytes.length);
+        text[2 + nameBytes.length] = (byte) (email == null ? 0 : 1);
+        System.arraycopy(emailBytes, 0, text, 3 + nameBytes.length, emailBytes.length);
+        return text;
+    }
+
+    private int slotOf(long id) {
+        int mask = ids.length - 1;
+        int slot = home(id);
+        while (ids[slot] != 0 && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (ids.length - 1);
+    }
+
+    private void resize() {
+        long[] oldIds = ids;
+        long[] oldCourseIds = courseIds;
+        byte[][] oldTexts = texts;
+        allocate(oldIds.length * 2);
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != 0) {
+                int slot = slotOf(oldIds[i]);
+                ids[slot] = oldIds[i];
+                courseIds[slot] = oldCourseIds[i];
+                texts[slot] = oldTexts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        courseIds = new long[capacity];
+        texts = new byte[capacity][];
+    }
+}
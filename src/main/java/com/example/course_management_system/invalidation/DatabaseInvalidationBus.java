@@ -0,0 +1,149 @@
+package com.example.course_management_system.invalidation;
+
+import com.example.course_management_system.entity.EntityChange;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.repository.EntityChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation bus over the shared database, needing no broker: each change
+ * is inserted into {@code entity_changes} in the transaction that made it,
+ * one JDBC batch per transaction, and every node polls the table for rows
+ * from other nodes every {@code cms.invalidation.poll-ms}. Other nodes
+ * therefore see a change at most one poll interval after it commits.
+ * <p>
+ * Rows are read in id order. Ids are assigned at insert but become visible at
+ * commit, so a lower id can appear after a higher one; the poller delivers
+ * rows as they appear and only moves its cursor over an id once that id has
+ * been seen, or after {@code cms.invalidation.gap-timeout} for ids that never
+ * commit. Rows older than {@code cms.invalidation.retention} are deleted.
+ */
+@Slf4j
+public class DatabaseInvalidationBus implements InvalidationBus {
+
+    private final EntityChangeRepository repository;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final Duration retention;
+    private final Clock clock;
+    private final String origin = UUID.randomUUID().toString();
+    // Ids above the cursor that were already delivered, while a lower id is still missing
+    private final TreeSet<Long> deliveredAbove = new TreeSet<>();
+    private volatile Consumer<EntityChangeEvent> receiver = event -> { };
+    // Every id up to here has been delivered or given up on; -1 until the latest id has been read
+    private long cursor = -1;
+    private long gapSince;
+    private long lastCleanup;
+
+    public DatabaseInvalidationBus(EntityChangeRepository repository, int batchSize,
+                                   Duration gapTimeout, Duration retention, Clock clock) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    @Override
+    public void publish(List<EntityChangeEvent> events) {
+        Instant now = clock.instant();
+        repository.insertAll(events.stream()
+                .map(event -> EntityChange.builder()
+                        .origin(origin)
+                        .entityType(event.getEntityType())
+                        .changeType(event.getChangeType())
+                        .entityId(event.getEntityId())
+                        .courseId(event.getCourseId())
+                        .previousCourseId(event.getPreviousCourseId())
+                        .createdAt(now)
+                        .build())
+                .toList());
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<EntityChangeEvent> receiver) {
+        this.receiver = receiver;
+        // Called while the context starts: changes from before that cannot be in this node's caches
+        try {
+            cursor = repository.findMaxId().orElse(0L);
+        } catch (RuntimeException ex) {
+            log.warn("Could not read the latest entity change, starting from the first poll: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cms.invalidation.poll-ms:500}", fixedDelayString = "${cms.invalidation.poll-ms:500}")
+    public synchronized void poll() {
+        try {
+            if (cursor < 0) {
+                cursor = repository.findMaxId().orElse(0L);
+                return;
+            }
+            for (EntityChange change : repository.findByIdGreaterThanOrderById(cursor, Limit.of(batchSize))) {
+                if (deliveredAbove.add(change.getId()) && !origin.equals(change.getOrigin())) {
+                    deliver(change);
+                }
+            }
+            advanceCursor();
+            removeExpired();
+        } catch (RuntimeException ex) {
+            log.warn("Could not poll entity changes: {}", ex.getMessage());
+        }
+    }
+
+    private void deliver(EntityChange change) {
+        try {
+            receiver.accept(new EntityChangeEvent(change.getEntityType(), change.getChangeType(),
+                    change.getEntityId(), change.getCourseId(), change.getPreviousCourseId()));
+        } catch (RuntimeException ex) {
+            log.warn("Could not apply entity change {} from another node: {}", change.getId(), ex.getMessage());
+        }
+    }
+
+    private void advanceCursor() {
+        long now = clock.millis();
+        while (!deliveredAbove.isEmpty()) {
+            if (deliveredAbove.first() == cursor + 1) {
+                cursor = deliveredAbove.pollFirst();
+                gapSince = 0;
+                continue;
+            }
+            // The next id is not visible yet: still being committed, or rolled back and never coming
+            if (gapSince == 0) {
+                gapSince = now;
+            }
+            if (now - gapSince < gapTimeoutMillis) {
+                return;
+            }
+            cursor = deliveredAbove.first() - 1;
+            gapSince = 0;
+        }
+        gapSince = 0;
+    }
+
+    private void removeExpired() {
+        long now = clock.millis();
+        if (now - lastCleanup < retention.toMillis() / 2) {
+            return;
+        }
+        lastCleanup = now;
+        int removed = repository.deleteCreatedBefore(clock.instant().minus(retention));
+        log.debug("Removed {} expired entity changes", removed);
+    }
+
+    String getOrigin() {
+        return origin;
+    }
+
+    synchronized long getCursor() {
+        return cursor;
+    }
+}
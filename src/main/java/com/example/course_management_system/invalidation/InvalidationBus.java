@@ -0,0 +1,35 @@
+package com.example.course_management_system.invalidation;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries committed entity changes between the application nodes behind the
+ * load balancer, so each node can drop what it cached about the changed rows.
+ * The transport is chosen with {@code cms.invalidation.transport}; see
+ * {@link com.example.course_management_system.config.InvalidationConfig}.
+ */
+public interface InvalidationBus {
+
+    /** Transport for a single node: nothing is sent or received. */
+    InvalidationBus NONE = new InvalidationBus() {
+        @Override
+        public void publish(List<EntityChangeEvent> events) {
+        }
+
+        @Override
+        public void subscribe(Consumer<EntityChangeEvent> receiver) {
+        }
+    };
+
+    /**
+     * Sends the changes one transaction made on this node, in the order they
+     * were made. Called inside that transaction, just before it commits, so a
+     * transport may write along with it.
+     */
+    void publish(List<EntityChangeEvent> events);
+
+    /** Sets where changes made on other nodes are delivered. */
+    void subscribe(Consumer<EntityChangeEvent> receiver);
+}
@@ -0,0 +1,73 @@
+package com.example.course_management_system.invalidation;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.RemoteEntityChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connects the service layer's change events to the {@link InvalidationBus}:
+ * local changes are collected per transaction and go out together just
+ * before it commits, and changes from other nodes are published here as
+ * {@link RemoteEntityChangeEvent}s, which reach the same cache listeners as
+ * local ones.
+ */
+@Component
+// Subscribes the bus's receiver, so it must exist before the first poll even when nothing is written locally
+@Lazy(false)
+public class InvalidationRelay {
+
+    private final InvalidationBus bus;
+
+    public InvalidationRelay(InvalidationBus bus, ApplicationEventPublisher eventPublisher) {
+        this.bus = bus;
+        bus.subscribe(event -> eventPublisher.publishEvent(new RemoteEntityChangeEvent(event.getEntityType(),
+                event.getChangeType(), event.getEntityId(), event.getCourseId(), event.getPreviousCourseId())));
+    }
+
+    @EventListener
+    public void onChange(EntityChangeEvent event) {
+        if (event instanceof RemoteEntityChangeEvent) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            bus.publish(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<EntityChangeEvent> pending = (List<EntityChangeEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new Outgoing(pending));
+        }
+        pending.add(event);
+    }
+
+    private final class Outgoing implements TransactionSynchronization {
+
+        private final List<EntityChangeEvent> events;
+
+        private Outgoing(List<EntityChangeEvent> events) {
+            this.events = events;
+        }
+
+        // Before commit, so a bus that writes to the database commits or rolls back with the changes themselves
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            bus.publish(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationRelay.this);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.course_management_system.jobs;
+
+import com.example.course_management_system.datasource.Workload;
+import com.example.course_management_system.entity.ArchivedCourse;
+import com.example.course_management_system.entity.ArchivedStudent;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.repository.ArchivedCourseRepository;
+import com.example.course_management_system.repository.ArchivedStudentRepository;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves courses that have been inactive for {@code cms.archive.grace-period}
+ * out of the live {@code courses} and {@code students} tables into
+ * {@code archived_courses} and {@code archived_students}, so live indexes and
+ * queries only cover current courses. Archived records are served read-only
+ * under {@code /archive}.
+ * <p>
+ * Students move in batches of {@code cms.archive.batch-size}: a batch is first
+ * copied to the archive at home and committed, and only then deleted from the
+ * shard that holds it. A crash in between leaves the batch in both places, and
+ * the next run copies it again without duplicating it before deleting it.
+ * Every batch publishes a DELETED event per student when its delete commits,
+ * so caches and other nodes drop those students as they leave. Once no
+ * students are left, the course row moves in one transaction and a course
+ * deletion is published, so caches drop the course like any other deleted
+ * one. The jobs run on the bulk connection pool and on the job scheduler's
+ * threads, so a long run holds up neither requests nor other periodic tasks.
+ * <p>
+ * Before moving anything the archiver claims the course by setting
+ * {@code archivingSince}, and renews the claim before every batch. Both are
+ * checked against the course's version column, so of two nodes claiming the
+ * same course one fails and skips it, and a course changed since the last
+ * batch is left for a later run. A claim not renewed for
+ * {@code cms.archive.claim-timeout}, after a crash, can be taken over.
+ * Reactivating or deleting a claimed course is refused, so a course is never
+ * left live with part of its roster archived.
+ */
+@Slf4j
+@Component
+public class CourseArchiver {
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final ArchivedCourseRepository archivedCourseRepository;
+    private final ArchivedStudentRepository archivedStudentRepository;
+    private final StudentShards studentShards;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration gracePeriod;
+    private final Duration claimTimeout;
+    private final Clock clock;
+
+    @Autowired
+    public CourseArchiver(CourseRepository courseRepository, StudentRepository studentRepository,
+                          ArchivedCourseRepository archivedCourseRepository,
+                          ArchivedStudentRepository archivedStudentRepository,
+                          StudentShards studentShards, ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${cms.archive.enabled:true}") boolean enabled,
+                          @Value("${cms.archive.batch-size:500}") int batchSize,
+                          @Value("${cms.archive.grace-period:1d}") Duration gracePeriod,
+                          @Value("${cms.archive.claim-timeout:10m}") Duration claimTimeout) {
+        this(courseRepository, studentRepository, archivedCourseRepository, archivedStudentRepository,
+                studentShards, eventPublisher, transactionManager, enabled, batchSize, gracePeriod, claimTimeout,
+                Clock.systemUTC());
+    }
+
+    CourseArchiver(CourseRepository courseRepository, StudentRepository studentRepository,
+                   ArchivedCourseRepository archivedCourseRepository,
+                   ArchivedStudentRepository archivedStudentRepository,
+                   StudentShards studentShards, ApplicationEventPublisher eventPublisher,
+                   PlatformTransactionManager transactionManager,
+                   boolean enabled, int batchSize, Duration gracePeriod, Duration claimTimeout, Clock clock) {
+        this.courseRepository = courseRepository;
+        this.studentRepository = studentRepository;
+        this.archivedCourseRepository = archivedCourseRepository;
+        this.archivedStudentRepository = archivedStudentRepository;
+        this.studentShards = studentShards;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.gracePeriod = gracePeriod;
+        this.claimTimeout = claimTimeout;
+        this.clock = clock;
+    }
+
+    @Scheduled(scheduler = "jobScheduler", initialDelayString = "${cms.archive.initial-delay-ms:10000}",
+            fixedDelayString = "${cms.archive.poll-ms:60000}")
+    public void archiveInactiveCourses() {
+        if (!enabled) {
+            return;
+        }
+        Workload previous = Workload.switchTo(Workload.BULK);
+        try {
+            List<Long> courseIds;
+            do {
+                courseIds = courseRepository.findIdsToArchive(clock.instant().minus(gracePeriod),
+                        clock.instant().minus(claimTimeout), Limit.of(batchSize));
+                for (Long courseId : courseIds) {
+                    if (!archive(courseId)) {
+                        // Left for the next run rather than retried in a loop
+                        return;
+                    }
+                }
+            } while (courseIds.size() == batchSize);
+        } finally {
+            Workload.switchTo(previous);
+        }
+    }
+
+    /** Returns false when the course was left half way, true when it moved or was skipped. */
+    boolean archive(Long courseId) {
+        Long version;
+        try {
+            version = transactionTemplate.execute(status -> claim(courseId, null));
+        } catch (OptimisticLockingFailureException ex) {
+            log.info("Course {} was claimed by another node", courseId);
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Claiming course {} for archiving failed", courseId, ex);
+            return false;
+        }
+        try {
+            while (version != null) {
+                version = moveNextBatch(courseId, version);
+            }
+            return true;
+        } catch (OptimisticLockingFailureException ex) {
+            log.info("Course {} changed while it was being archived, leaving it for now", courseId);
+        } catch (RuntimeException ex) {
+            log.warn("Archiving course {} failed", courseId, ex);
+        }
+        return false;
+    }
+
+    /**
+     * Claims the course, or renews the claim taken at {@code claimedVersion},
+     * and returns the course's new version; null when there is nothing to
+     * archive or another node holds a live claim.
+     */
+    private Long claim(Long courseId, Long claimedVersion) {
+        Course course = courseRepository.findById(courseId).orElse(null);
+        if (course != null && claimedVersion != null && course.getVersion() != claimedVersion) {
+            throw new ObjectOptimisticLockingFailureException(Course.class, courseId);
+        }
+        if (!isInactive(course)) {
+            return null;
+        }
+        Instant now = clock.instant();
+        if (claimedVersion == null
+                && course.getArchivingSince() != null && course.getArchivingSince().isAfter(now.minus(claimTimeout))) {
+            return null;
+        }
+        course.setArchivingSince(now);
+        // A concurrent claim read the same version, so only one of the two updates matches a row
+        courseRepository.saveAndFlush(course);
+        return course.getVersion();
+    }
+
+    /** Moves one batch and returns the renewed claim's version, or null once the course has moved. */
+    private Long moveNextBatch(Long courseId, long claimedVersion) {
+        Long version = transactionTemplate.execute(status -> claim(courseId, claimedVersion));
+        if (version == null) {
+            return null;
+        }
+        int shard = studentShards.shardOf(courseId);
+        List<Student> students = studentShards.read(shard,
+                () -> studentRepository.findRosterPage(courseId, 0L, Limit.of(batchSize)));
+        if (students.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> moveCourse(courseId, version));
+            return null;
+        }
+        List<Long> studentIds = students.stream().map(Student::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> copied = new HashSet<>(archivedStudentRepository.findExistingIds(studentIds));
+            archivedStudentRepository.saveAll(students.stream()
+                    .filter(student -> !copied.contains(student.getId()))
+                    .map(student -> toArchived(student, courseId))
+                    .toList());
+        });
+        // The events go out when the delete commits
+        transactionTemplate.executeWithoutResult(status -> {
+            studentShards.write(shard, () -> studentRepository.deleteAllByIdInBatch(studentIds));
+            for (Long studentId : studentIds) {
+                eventPublisher.publishEvent(EntityChangeEvent.student(ChangeType.DELETED, studentId, courseId));
+            }
+        });
+        return version;
+    }
+
+    private void moveCourse(Long courseId, long claimedVersion) {
+        Course course = courseRepository.findById(courseId).orElse(null);
+        if (course == null) {
+            return;
+        }
+        if (course.getVersion() != claimedVersion) {
+            throw new ObjectOptimisticLockingFailureException(Course.class, courseId);
+        }
+        archivedCourseRepository.save(ArchivedCourse.builder()
+                .id(course.getId())
+                .name(course.getName())
+                .inactiveSince(course.getInactiveSince())
+                .build());
+        courseRepository.delete(course);
+        eventPublisher.publishEvent(EntityChangeEvent.course(ChangeType.DELETED, courseId));
+    }
+
+    private static boolean isInactive(Course course) {
+        return course != null && course.getInactiveSince() != null;
+    }
+
+    private static ArchivedStudent toArchived(Student student, Long courseId) {
+        return ArchivedStudent.builder()
+                .id(student.getId())
+                .courseId(courseId)
+                .name(student.getName())
+                .email(student.getEmail())
+                .build();
+    }
+}
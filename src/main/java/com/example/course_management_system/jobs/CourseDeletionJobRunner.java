@@ -0,0 +1,138 @@
+package com.example.course_management_system.jobs;
+
+import com.example.course_management_system.datasource.Workload;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.CourseDeletionJob;
+import com.example.course_management_system.entity.CourseDeletionJob.Status;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.repository.CourseDeletionJobRepository;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+/**
+ * Works through queued course deletions. Each step deletes one bounded
+ * batch of the course's students and records the progress on the job in the
+ * same short transaction; the course row itself goes in the final step, once
+ * no students are left. Because progress is committed per batch and jobs are
+ * picked up by status, a restart simply resumes the remaining work. The
+ * job's version column keeps two nodes from advancing the same job.
+ * <p>
+ * Every batch publishes a DELETED event per student, so caches, the change
+ * feed and other nodes drop those students when the batch commits rather
+ * than when the whole course is gone. The jobs run on the bulk connection
+ * pool, out of the way of interactive requests, and on the job scheduler's
+ * threads, out of the way of the other periodic tasks.
+ * <p>
+ * A course claimed by {@link CourseArchiver} fails its job. Every batch
+ * bumps the course's version, so an archiver that read the course before
+ * the batch fails to claim it, and a claim that commits first makes the
+ * batch fail and the next run see the claim.
+ * <p>
+ * When the course's students live on another shard, each batch commits there
+ * just before the progress is recorded at home, so a crash in between leaves
+ * the count short but the remaining work intact.
+ */
+@Slf4j
+@Component
+public class CourseDeletionJobRunner {
+
+    private final CourseDeletionJobRepository jobRepository;
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final StudentShards studentShards;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CourseDeletionJobRunner(CourseDeletionJobRepository jobRepository, CourseRepository courseRepository,
+                                   StudentRepository studentRepository, StudentShards studentShards,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${cms.course-deletion.batch-size:500}") int batchSize) {
+        this.jobRepository = jobRepository;
+        this.courseRepository = courseRepository;
+        this.studentRepository = studentRepository;
+        this.studentShards = studentShards;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(scheduler = "jobScheduler", initialDelayString = "${cms.course-deletion.initial-delay-ms:5000}",
+            fixedDelayString = "${cms.course-deletion.poll-ms:1000}")
+    public void runPendingJobs() {
+        Workload previous = Workload.switchTo(Workload.BULK);
+        try {
+            for (CourseDeletionJob job : jobRepository.findByStatusInOrderById(Status.ACTIVE)) {
+                run(job.getId());
+            }
+        } finally {
+            Workload.switchTo(previous);
+        }
+    }
+
+    void run(Long jobId) {
+        try {
+            boolean done = false;
+            while (!done) {
+                done = Boolean.TRUE.equals(transactionTemplate.execute(status -> deleteNextBatch(jobId)));
+            }
+        } catch (OptimisticLockingFailureException ex) {
+            log.info("Course deletion job {} was advanced concurrently, leaving it for now", jobId);
+        } catch (RuntimeException ex) {
+            log.warn("Course deletion job {} failed", jobId, ex);
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(Status.FAILED);
+                job.setError(ex.getMessage());
+            }));
+        }
+    }
+
+    private boolean deleteNextBatch(Long jobId) {
+        CourseDeletionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !Status.ACTIVE.contains(job.getStatus())) {
+            return true;
+        }
+        Course course = courseRepository.findById(job.getCourseId()).orElse(null);
+        if (course != null && course.getArchivingSince() != null) {
+            job.setStatus(Status.FAILED);
+            job.setError("Course " + course.getId() + " is being archived");
+            return true;
+        }
+        int shard = studentShards.shardOf(job.getCourseId());
+        List<Long> studentIds = studentShards.read(shard,
+                () -> studentRepository.findIdsByCourseId(job.getCourseId(), Limit.of(batchSize)));
+        if (studentIds.isEmpty()) {
+            if (course != null) {
+                courseRepository.delete(course);
+                eventPublisher.publishEvent(EntityChangeEvent.course(ChangeType.DELETED, course.getId()));
+            }
+            job.setStatus(Status.COMPLETED);
+            return true;
+        }
+        // An archiver claiming the course meanwhile fails on this, or this fails on its claim
+        if (course != null && courseRepository.incrementVersion(course.getId(), course.getVersion()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Course.class, course.getId());
+        }
+        studentShards.write(shard, () -> studentRepository.deleteAllByIdInBatch(studentIds));
+        for (Long studentId : studentIds) {
+            eventPublisher.publishEvent(EntityChangeEvent.student(ChangeType.DELETED, studentId, job.getCourseId()));
+        }
+        job.setStatus(Status.RUNNING);
+        job.setStudentsDeleted(job.getStudentsDeleted() + studentIds.size());
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.course_management_system.jobs;
+
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sets {@code version = 0} on course and student rows that predate the
+ * version column being not null. {@code ddl-auto=update} never changes an
+ * existing column, so databases that first got the column as nullable keep
+ * their null versions, and Hibernate cannot increment those. Runs once all
+ * beans exist and before the web server accepts requests; on an up to date
+ * database it is one cheap update per table.
+ */
+@Slf4j
+@Component
+public class VersionBackfill implements SmartInitializingSingleton {
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final StudentShards studentShards;
+    private final TransactionTemplate transactionTemplate;
+
+    public VersionBackfill(CourseRepository courseRepository, StudentRepository studentRepository,
+                           StudentShards studentShards, PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.studentRepository = studentRepository;
+        this.studentShards = studentShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int courses = courseRepository.backfillVersions();
+            int students = 0;
+            for (int shard = 0; shard < studentShards.count(); shard++) {
+                students += studentShards.write(shard, () -> studentRepository.backfillVersions());
+            }
+            if (courses > 0 || students > 0) {
+                log.info("Set version 0 on {} courses and {} students without one", courses, students);
+            }
+        });
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.course_management_system.journal;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.RemoteEntityChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of every committed course and student change,
+ * kept in files instead of the database so auditing adds no database writes.
+ * <p>
+ * The request thread only puts the committed change into a lock-free ring
+ * buffer; a single writer thread encodes it into memory-mapped segment files
+ * (see {@link JournalFormat}) and flushes them to disk every
+ * {@code cms.journal.force-interval}. A process crash loses nothing that
+ * reached the buffer's writer; a machine crash can lose up to one force
+ * interval. When the buffer is full, request threads wait for the writer
+ * rather than drop records. Records are only dropped once the writer has
+ * failed or the journal is closing, and are counted in the statistics.
+ * <p>
+ * Read the journal with {@link JournalReader} or {@link JournalTool}.
+ */
+@Slf4j
+@Component
+public class ChangeJournal {
+
+    private final boolean enabled;
+    private final long forceIntervalNanos;
+    private final MpscRingBuffer<Entry> buffer;
+    private final JournalWriter writer;
+    private final Thread writerThread;
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean writerParked;
+    private volatile boolean failed;
+    private volatile boolean closing;
+    private volatile long written;
+
+    public ChangeJournal(@Value("${cms.journal.enabled:true}") boolean enabled,
+                         @Value("${cms.journal.directory:${user.home}/.cms/journal}") Path directory,
+                         @Value("${cms.journal.segment-size:64MB}") DataSize segmentSize,
+                         @Value("${cms.journal.buffer-size:8192}") int bufferSize,
+                         @Value("${cms.journal.force-interval:1s}") Duration forceInterval) {
+        this.enabled = enabled;
+        this.forceIntervalNanos = forceInterval.toNanos();
+        if (!enabled) {
+            this.buffer = null;
+            this.writer = null;
+            this.writerThread = null;
+            return;
+        }
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        try {
+            this.writer = new JournalWriter(directory, Math.toIntExact(segmentSize.toBytes()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the change journal in " + directory.toAbsolutePath(), ex);
+        }
+        this.writerThread = new Thread(this::writeLoop, "change-journal");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        log.info("Change journal in {}, next sequence {}", directory.toAbsolutePath(), writer.getNextSequence());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        // Every node journals its own writes; changes from other nodes are in their journals
+        if (!enabled || event instanceof RemoteEntityChangeEvent) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), event);
+        if (!buffer.offer(entry)) {
+            stalled.increment();
+            do {
+                if (failed || closing) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            } while (!buffer.offer(entry));
+        }
+        appended.increment();
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("appended", appended.sum());
+        statistics.put("written", written);
+        statistics.put("stalled", stalled.sum());
+        statistics.put("dropped", dropped.sum());
+        statistics.put("failed", failed);
+        if (enabled) {
+            statistics.put("segments", writer.getSegments());
+        }
+        return statistics;
+    }
+
+    /** Waits until everything appended so far is written and forced to disk, then stops the writer. */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        closing = true;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        try {
+            while (true) {
+                Entry entry = buffer.poll();
+                if (entry != null) {
+                    writer.append(entry.timestamp(), entry.event());
+                    written++;
+                }
+                // Checked per record as well, so a buffer that never drains is still forced every interval
+                long now = System.nanoTime();
+                if (writer.isDirty() && now - lastForce >= forceIntervalNanos) {
+                    writer.force();
+                    lastForce = now;
+                }
+                if (entry != null) {
+                    continue;
+                }
+                if (closing && buffer.isEmpty()) {
+                    writer.close();
+                    return;
+                }
+                writerParked = true;
+                if (buffer.isEmpty()) {
+                    LockSupport.parkNanos(forceIntervalNanos);
+                }
+                writerParked = false;
+            }
+        } catch (IOException | RuntimeException ex) {
+            failed = true;
+            writer.release();
+            log.error("Change journal writer stopped after {} records; further changes are not journaled", written, ex);
+        }
+    }
+
+    private record Entry(long timestamp, EntityChangeEvent event) {
+    }
+}
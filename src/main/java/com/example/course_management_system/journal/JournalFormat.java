@@ -0,0 +1,124 @@
+package com.example.course_management_system.journal;
+
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import java.nio.ByteBuffer;
+
+/**
+ * On-disk layout of journal segments.
+ * <pre>
+ * segment  header (32 bytes), then records, then zero bytes to the end of the file
+ * header   int magic "CMSJ" | int version | long first sequence | long base time (epoch ms) | long reserved
+ * record   u8 length of the rest | u8 flags | varint time since base (zigzag) | varint entity id
+ *          | [varint course id] | [varint previous course id]
+ * flags    bit 0 previous course id present, bit 1 course id present,
+ *          bits 2-3 change type ordinal, bit 4 entity type ordinal
+ * </pre>
+ * A record's sequence is its segment's first sequence plus its index in the
+ * segment. The length byte is written after the rest of the record and is
+ * never zero, so a zero length marks where the written data ends.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x434D534A;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    // Length byte, flags, and four varints of at most 10 bytes each
+    static final int MAX_RECORD_BYTES = 2 + 4 * 10;
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int PREVIOUS_COURSE = 1;
+    private static final int COURSE = 1 << 1;
+    private static final int CHANGE_SHIFT = 2;
+    private static final int ENTITY_SHIFT = 4;
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final ChangeType[] CHANGE_TYPES = ChangeType.values();
+
+    private JournalFormat() {
+    }
+
+    static String segmentName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    static void writeHeader(ByteBuffer segment, long firstSequence, long baseTime) {
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putLong(8, firstSequence);
+        segment.putLong(16, baseTime);
+    }
+
+    static long firstSequence(ByteBuffer segment) {
+        if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a version " + VERSION + " journal segment");
+        }
+        return segment.getLong(8);
+    }
+
+    static long baseTime(ByteBuffer segment) {
+        return segment.getLong(16);
+    }
+
+    /** Encodes into {@code out} from index 0, length byte included, and returns the record's size. */
+    static int encode(byte[] out, long timeSinceBase, EntityType entityType, ChangeType changeType,
+                      Long entityId, Long courseId, Long previousCourseId) {
+        int flags = entityType.ordinal() << ENTITY_SHIFT | changeType.ordinal() << CHANGE_SHIFT
+                | (courseId != null ? COURSE : 0) | (previousCourseId != null ? PREVIOUS_COURSE : 0);
+        out[1] = (byte) flags;
+        int position = putVarLong(out, 2, timeSinceBase << 1 ^ timeSinceBase >> 63);
+        position = putVarLong(out, position, entityId);
+        if (courseId != null) {
+            position = putVarLong(out, position, courseId);
+        }
+        if (previousCourseId != null) {
+            position = putVarLong(out, position, previousCourseId);
+        }
+        out[0] = (byte) (position - 1);
+        return position;
+    }
+
+    /** Decodes the record at the buffer's position and moves past it, or returns null at the end of the data. */
+    static JournalRecord decode(ByteBuffer segment, long sequence, long baseTime) {
+        if (segment.remaining() == 0) {
+            return null;
+        }
+        int length = segment.get() & 0xFF;
+        if (length == 0) {
+            segment.position(segment.position() - 1);
+            return null;
+        }
+        int end = segment.position() + length;
+        int flags = segment.get();
+        long zigzag = getVarLong(segment);
+        long timestamp = baseTime + (zigzag >>> 1 ^ -(zigzag & 1));
+        Long entityId = getVarLong(segment);
+        Long courseId = (flags & COURSE) != 0 ? getVarLong(segment) : null;
+        Long previousCourseId = (flags & PREVIOUS_COURSE) != 0 ? getVarLong(segment) : null;
+        if (segment.position() != end) {
+            throw new IllegalStateException("Corrupt journal record " + sequence);
+        }
+        return new JournalRecord(sequence, timestamp, ENTITY_TYPES[flags >> ENTITY_SHIFT & 1],
+                CHANGE_TYPES[flags >> CHANGE_SHIFT & 3], entityId, courseId, previousCourseId);
+    }
+
+    private static int putVarLong(byte[] out, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in journal");
+    }
+}
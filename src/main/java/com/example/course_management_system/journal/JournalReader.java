@@ -0,0 +1,65 @@
+package com.example.course_management_system.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads journal segments back in sequence order. Safe to run while the
+ * application is appending: records are only seen once fully written.
+ */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    /** Feeds every record with a sequence of at least {@code fromSequence} to the consumer, oldest first. */
+    public static void replay(Path directory, long fromSequence, Consumer<JournalRecord> consumer) throws IOException {
+        List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            // Segment names are their first sequence, so whole segments before the start are skipped unread
+            if (i + 1 < segments.size() && firstSequenceOf(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            MappedByteBuffer segment = map(segments.get(i));
+            long sequence = JournalFormat.firstSequence(segment);
+            long baseTime = JournalFormat.baseTime(segment);
+            segment.position(JournalFormat.HEADER_BYTES);
+            JournalRecord record;
+            while ((record = JournalFormat.decode(segment, sequence++, baseTime)) != null) {
+                if (record.sequence() >= fromSequence) {
+                    consumer.accept(record);
+                }
+            }
+        }
+    }
+
+    /** Segment files of the directory, oldest first. */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(JournalFormat.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - JournalFormat.SEGMENT_SUFFIX.length()));
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.course_management_system.journal;
+
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+
+/**
+ * One committed change as read back from the journal. {@code timestamp} is
+ * when the journal received it, in epoch milliseconds; {@code courseId} and
+ * {@code previousCourseId} carry the same meaning as in the change event.
+ */
+public record JournalRecord(long sequence, long timestamp, EntityType entityType, ChangeType changeType,
+                            Long entityId, Long courseId, Long previousCourseId) {
+}
@@ -0,0 +1,104 @@
+package com.example.course_management_system.journal;
+
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Command line reader for the change journal, see {@code scripts/journal.sh}.
+ * <pre>
+ * print  &lt;directory&gt; [from-sequence]   one line per record
+ * replay &lt;directory&gt; [from-sequence]   applies the records in order and prints
+ *                                      the resulting courses and roster sizes
+ * </pre>
+ * A replay from the first sequence rebuilds which courses and students exist
+ * and where every student is enrolled, to compare against the database.
+ */
+public final class JournalTool {
+
+    private JournalTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("print") || args[0].equals("replay"))) {
+            System.err.println("usage: JournalTool print|replay <directory> [from-sequence]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[1]);
+        long fromSequence = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        if (args[0].equals("print")) {
+            JournalReader.replay(directory, fromSequence, record -> System.out.println(format(record)));
+        } else {
+            Replay replay = new Replay();
+            JournalReader.replay(directory, fromSequence, replay::apply);
+            replay.print();
+        }
+    }
+
+    private static String format(JournalRecord record) {
+        StringBuilder line = new StringBuilder()
+                .append(record.sequence()).append(' ')
+                .append(Instant.ofEpochMilli(record.timestamp())).append(' ')
+                .append(record.entityType()).append(' ')
+                .append(record.changeType()).append(' ')
+                .append("id=").append(record.entityId());
+        if (record.entityType() == EntityType.STUDENT) {
+            line.append(" course=").append(record.courseId());
+        }
+        if (record.previousCourseId() != null) {
+            line.append(" previous-course=").append(record.previousCourseId());
+        }
+        return line.toString();
+    }
+
+    /** Entity state rebuilt from the records. */
+    static final class Replay {
+
+        private final Set<Long> courses = new HashSet<>();
+        private final Map<Long, Long> studentCourses = new HashMap<>();
+        private long records;
+        private long lastSequence;
+
+        void apply(JournalRecord record) {
+            records++;
+            lastSequence = record.sequence();
+            if (record.entityType() == EntityType.COURSE) {
+                if (record.changeType() == ChangeType.DELETED) {
+                    courses.remove(record.entityId());
+                    // Deleting a course deletes its roster without an event per student
+                    studentCourses.values().removeIf(record.entityId()::equals);
+                } else {
+                    courses.add(record.entityId());
+                }
+            } else if (record.changeType() == ChangeType.DELETED) {
+                studentCourses.remove(record.entityId());
+            } else {
+                studentCourses.put(record.entityId(), record.courseId());
+            }
+        }
+
+        Set<Long> getCourses() {
+            return courses;
+        }
+
+        Map<Long, Long> getStudentCourses() {
+            return studentCourses;
+        }
+
+        void print() {
+            Map<Long, Integer> rosterSizes = new TreeMap<>();
+            courses.forEach(course -> rosterSizes.put(course, 0));
+            studentCourses.values().forEach(course -> rosterSizes.merge(course, 1, Integer::sum));
+            System.out.printf("records=%d last-sequence=%d courses=%d students=%d%n",
+                    records, lastSequence, courses.size(), studentCourses.size());
+            rosterSizes.forEach((course, size) -> System.out.printf("course %d: %d students%n", course, size));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.course_management_system.journal;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends records to memory-mapped segment files of a fixed size, starting a
+ * new segment when the current one is full. Reopening a directory continues
+ * the newest segment after its last record. Holds an exclusive lock on the
+ * directory until closed, so a second process or application context cannot
+ * append to the same segment. Not thread-safe: the journal has a single
+ * writer thread.
+ */
+final class JournalWriter implements Closeable {
+
+    private static final String LOCK_FILE = ".lock";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FileChannel lockFile;
+    private final byte[] scratch = new byte[JournalFormat.MAX_RECORD_BYTES];
+    private MappedByteBuffer segment;
+    private long baseTime;
+    private long nextSequence;
+    private int segments;
+    private boolean dirty;
+
+    JournalWriter(Path directory, int segmentBytes) throws IOException {
+        int minimum = JournalFormat.HEADER_BYTES + JournalFormat.MAX_RECORD_BYTES + 1;
+        if (segmentBytes < minimum) {
+            throw new IllegalArgumentException("Journal segments need at least " + minimum + " bytes, got " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.lockFile = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        lock(lockFile, directory);
+        try {
+            List<Path> existing = JournalReader.segments(directory);
+            segments = existing.size();
+            if (existing.isEmpty()) {
+                startSegment(1);
+            } else {
+                resume(existing.get(existing.size() - 1));
+            }
+        } catch (IOException | RuntimeException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    /** Writes the change and returns its sequence number. */
+    long append(long timestamp, EntityChangeEvent event) throws IOException {
+        int length = JournalFormat.encode(scratch, timestamp - baseTime, event.getEntityType(), event.getChangeType(),
+                event.getEntityId(), event.getCourseId(), event.getPreviousCourseId());
+        // One spare byte keeps a zero end marker after the last record
+        if (segment.remaining() < length + 1) {
+            force();
+            startSegment(nextSequence);
+        }
+        int position = segment.position();
+        segment.put(position + 1, scratch, 1, length - 1);
+        segment.put(position, scratch[0]);
+        segment.position(position + length);
+        dirty = true;
+        return nextSequence++;
+    }
+
+    /** Flushes written records to the file, so they survive a machine crash as well as a process crash. */
+    void force() {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    long getNextSequence() {
+        return nextSequence;
+    }
+
+    int getSegments() {
+        return segments;
+    }
+
+    @Override
+    public void close() {
+        try {
+            force();
+        } finally {
+            release();
+        }
+    }
+
+    /** Gives up the directory without flushing, for a writer that has failed. */
+    void release() {
+        try {
+            lockFile.close();
+        } catch (IOException ex) {
+            // Closing the channel releases the lock; there is nothing left to do if it fails
+        }
+    }
+
+    /** Held until the channel is closed. */
+    private static void lock(FileChannel lockFile, Path directory) throws IOException {
+        FileLock lock;
+        try {
+            lock = lockFile.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            // Held by another writer in this JVM
+            lock = null;
+        }
+        if (lock == null) {
+            lockFile.close();
+            throw new IOException("Journal directory " + directory.toAbsolutePath() + " is in use by another writer");
+        }
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        segment = map(directory.resolve(JournalFormat.segmentName(firstSequence)), segmentBytes);
+        baseTime = System.currentTimeMillis();
+        JournalFormat.writeHeader(segment, firstSequence, baseTime);
+        segment.position(JournalFormat.HEADER_BYTES);
+        segment.force();
+        nextSequence = firstSequence;
+        segments++;
+    }
+
+    private void resume(Path file) throws IOException {
+        segment = map(file, (int) Files.size(file));
+        nextSequence = JournalFormat.firstSequence(segment);
+        baseTime = JournalFormat.baseTime(segment);
+        segment.position(JournalFormat.HEADER_BYTES);
+        while (JournalFormat.decode(segment, nextSequence, baseTime) != null) {
+            nextSequence++;
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.course_management_system.journal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, after
+ * Dmitry Vyukov's bounded queue. A producer claims a position with a CAS on
+ * the tail and publishes it by advancing that slot's sequence; the consumer
+ * takes positions strictly in claim order once they are published.
+ */
+final class MpscRingBuffer<T> {
+
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, was " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Returns false without waiting when every slot is taken. */
+    boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (lag < 0) {
+                return false;
+            }
+        }
+    }
+
+    /** Consumer only: the next element, or null when the next position is not published yet. */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T element = (T) slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /** Consumer only. */
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.course_management_system.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for one repository method or endpoint: how often it ran,
+ * how many SQL statements it issued and how long it took.
+ */
+public class InvocationStats {
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxStatements = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long statementCount, long elapsedNanos) {
+        invocations.increment();
+        statements.add(statementCount);
+        totalNanos.add(elapsedNanos);
+        maxStatements.accumulateAndGet(statementCount, Math::max);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getMaxStatements() {
+        return maxStatements.get();
+    }
+
+    public double getAvgStatements() {
+        long count = invocations.sum();
+        return count == 0 ? 0 : (double) statements.sum() / count;
+    }
+
+    public double getAvgMillis() {
+        long count = invocations.sum();
+        return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalNanos.sum()) / count / 1000;
+    }
+
+    public double getMaxMillis() {
+        return (double) TimeUnit.NANOSECONDS.toMicros(maxNanos.get()) / 1000;
+    }
+}
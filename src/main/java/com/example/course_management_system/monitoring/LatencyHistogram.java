@@ -0,0 +1,103 @@
+package com.example.course_management_system.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram. Percentiles are reported as the upper
+ * bound of the bucket they fall into, which is precise enough to spot pool
+ * waits without keeping individual samples.
+ */
+public class LatencyHistogram {
+
+    private static final double[] BOUNDS_MILLIS =
+            {0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long elapsedNanos) {
+        double millis = elapsedNanos / 1_000_000.0;
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public void clear() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public double getAvgMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalNanos.sum()) / count / 1000;
+    }
+
+    public double getMaxMillis() {
+        return (double) TimeUnit.NANOSECONDS.toMicros(maxNanos.get()) / 1000;
+    }
+
+    public double getP50Millis() {
+        return percentile(0.50);
+    }
+
+    public double getP95Millis() {
+        return percentile(0.95);
+    }
+
+    public double getP99Millis() {
+        return percentile(0.99);
+    }
+
+    public Map<String, Long> getBuckets() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            long count = buckets[i].sum();
+            if (count > 0) {
+                counts.put(i < BOUNDS_MILLIS.length ? "<=" + BOUNDS_MILLIS[i] + "ms" : ">" + BOUNDS_MILLIS[i - 1] + "ms", count);
+            }
+        }
+        return counts;
+    }
+
+    private double percentile(double quantile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return Math.min(BOUNDS_MILLIS[i], getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+}
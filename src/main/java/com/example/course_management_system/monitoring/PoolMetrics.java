@@ -0,0 +1,35 @@
+package com.example.course_management_system.monitoring;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects {@link PoolStatistics} for every Hikari pool it is installed
+ * into, keyed by pool name.
+ */
+@Component
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private final Map<String, PoolStatistics> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolStatistics statistics = new PoolStatistics(poolStats);
+        pools.put(poolName, statistics);
+        return statistics;
+    }
+
+    public Map<String, PoolStatistics> getPools() {
+        return Collections.unmodifiableMap(new TreeMap<>(pools));
+    }
+
+    public void clear() {
+        pools.values().forEach(PoolStatistics::clear);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.course_management_system.monitoring;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live view of one Hikari pool: connection counts straight from the pool
+ * plus histograms of how long callers waited for a connection and how long
+ * they held it.
+ */
+public class PoolStatistics implements IMetricsTracker {
+
+    private final PoolStats poolStats;
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram usage = new LatencyHistogram();
+    private final LatencyHistogram creation = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+
+    public PoolStatistics(PoolStats poolStats) {
+        this.poolStats = poolStats;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquire.record(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usage.record(elapsedBorrowedMillis * 1_000_000);
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        creation.record(connectionCreatedMillis * 1_000_000);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public void clear() {
+        acquire.clear();
+        usage.clear();
+        creation.clear();
+        timeouts.reset();
+    }
+
+    public int getActive() {
+        return poolStats.getActiveConnections();
+    }
+
+    public int getIdle() {
+        return poolStats.getIdleConnections();
+    }
+
+    public int getPending() {
+        return poolStats.getPendingThreads();
+    }
+
+    public int getTotal() {
+        return poolStats.getTotalConnections();
+    }
+
+    public int getMax() {
+        return poolStats.getMaxConnections();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public LatencyHistogram getAcquire() {
+        return acquire;
+    }
+
+    public LatencyHistogram getUsage() {
+        return usage;
+    }
+
+    public LatencyHistogram getCreation() {
+        return creation;
+    }
+}
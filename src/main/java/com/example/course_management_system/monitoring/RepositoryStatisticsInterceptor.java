@@ -0,0 +1,33 @@
+package com.example.course_management_system.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Attributes the statements issued inside a repository call to
+ * {@code RepositoryInterface.method}.
+ */
+public class RepositoryStatisticsInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final ObjectProvider<SqlStatistics> sqlStatistics;
+
+    public RepositoryStatisticsInterceptor(Class<?> repositoryInterface, ObjectProvider<SqlStatistics> sqlStatistics) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+        this.sqlStatistics = sqlStatistics;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long statementsBefore = SqlStatementCounter.total();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            sqlStatistics.getObject().recordRepositoryCall(repositoryName + "." + invocation.getMethod().getName(),
+                    SqlStatementCounter.total() - statementsBefore, elapsed);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.course_management_system.monitoring;
+
+import lombok.Getter;
+
+/**
+ * Per-thread tally of JDBC statements executed through the monitored
+ * DataSource. The request filter resets it at the start of each request and
+ * repository interceptors read it before and after each call.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    private SqlStatementCounter() {
+    }
+
+    public static void record(String sql) {
+        COUNTS.get().record(sql);
+    }
+
+    public static Counts current() {
+        return COUNTS.get();
+    }
+
+    public static long total() {
+        return COUNTS.get().getTotal();
+    }
+
+    public static void reset() {
+        COUNTS.remove();
+    }
+
+    @Getter
+    public static final class Counts {
+
+        private long select;
+        private long insert;
+        private long update;
+        private long delete;
+        private long other;
+
+        void record(String sql) {
+            String verb = sql.stripLeading();
+            if (startsWith(verb, "select") || startsWith(verb, "with")) {
+                select++;
+            } else if (startsWith(verb, "insert")) {
+                insert++;
+            } else if (startsWith(verb, "update")) {
+                update++;
+            } else if (startsWith(verb, "delete")) {
+                delete++;
+            } else {
+                other++;
+            }
+        }
+
+        public long getTotal() {
+            return select + insert + update + delete + other;
+        }
+
+        private static boolean startsWith(String sql, String verb) {
+            return sql.regionMatches(true, 0, verb, 0, verb.length());
+        }
+    }
+}
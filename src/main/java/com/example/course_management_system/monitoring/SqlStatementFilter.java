@@ -0,0 +1,53 @@
+package com.example.course_management_system.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+
+/**
+ * Measures the SQL statements issued while serving each request, records
+ * them per endpoint and warns about requests that look like N+1 selects.
+ */
+@Slf4j
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private final SqlStatistics sqlStatistics;
+    private final long nPlusOneThreshold;
+
+    public SqlStatementFilter(SqlStatistics sqlStatistics, long nPlusOneThreshold) {
+        this.sqlStatistics = sqlStatistics;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            SqlStatementCounter.Counts counts = SqlStatementCounter.current();
+            String endpoint = endpointOf(request);
+            sqlStatistics.recordRequest(endpoint, counts.getTotal(), elapsed);
+            if (counts.getSelect() > nPlusOneThreshold) {
+                log.warn("Possible N+1 on {}: {} selects ({} statements) in one request",
+                        endpoint, counts.getSelect(), counts.getTotal());
+            } else {
+                log.debug("{} ran {} SQL statements", endpoint, counts.getTotal());
+            }
+            SqlStatementCounter.reset();
+        }
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.course_management_system.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Counts every statement against the current thread and logs statements
+ * slower than the configured threshold together with a short summary of
+ * their bind parameters.
+ */
+@Slf4j
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final int MAX_PARAMETER_SETS = 3;
+    private static final int MAX_PARAMETERS = 10;
+    private static final int MAX_VALUE_LENGTH = 32;
+
+    private final long slowThresholdMs;
+
+    public SqlStatementListener(long slowThresholdMs) {
+        this.slowThresholdMs = slowThresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            SqlStatementCounter.record(queryInfo.getQuery());
+        }
+        if (execInfo.getElapsedTime() >= slowThresholdMs) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Slow SQL ({} ms{}): {} | params: {}", execInfo.getElapsedTime(),
+                        execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                        queryInfo.getQuery(), summarize(queryInfo.getParametersList()));
+            }
+        }
+    }
+
+    static String summarize(List<List<ParameterSetOperation>> parameterSets) {
+        StringJoiner sets = new StringJoiner(", ");
+        int shown = Math.min(parameterSets.size(), MAX_PARAMETER_SETS);
+        for (List<ParameterSetOperation> parameters : parameterSets.subList(0, shown)) {
+            StringJoiner values = new StringJoiner(", ", "(", ")");
+            int shownParameters = Math.min(parameters.size(), MAX_PARAMETERS);
+            for (ParameterSetOperation parameter : parameters.subList(0, shownParameters)) {
+                Object[] args = parameter.getArgs();
+                if (ParameterSetOperation.isSetNullParameterOperation(parameter)) {
+                    values.add("null");
+                } else {
+                    values.add(args.length > 1 ? abbreviate(args[1]) : "?");
+                }
+            }
+            if (parameters.size() > shownParameters) {
+                values.add("+" + (parameters.size() - shownParameters) + " more");
+            }
+            sets.add(values.toString());
+        }
+        if (parameterSets.size() > shown) {
+            sets.add("+" + (parameterSets.size() - shown) + " more sets");
+        }
+        return sets.toString();
+    }
+
+    private static String abbreviate(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String text = value.toString();
+        return text.length() <= MAX_VALUE_LENGTH ? text : text.substring(0, MAX_VALUE_LENGTH) + "...";
+    }
+}
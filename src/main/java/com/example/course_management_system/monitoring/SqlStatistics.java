@@ -0,0 +1,85 @@
+package com.example.course_management_system.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects statement counts per repository method and per endpoint, and
+ * exposes them next to Hibernate's own session and query statistics.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatistics {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<String, InvocationStats> repositoryMethods = new ConcurrentHashMap<>();
+    private final Map<String, InvocationStats> endpoints = new ConcurrentHashMap<>();
+
+    public void recordRepositoryCall(String method, long statements, long elapsedNanos) {
+        repositoryMethods.computeIfAbsent(method, key -> new InvocationStats()).record(statements, elapsedNanos);
+    }
+
+    public void recordRequest(String endpoint, long statements, long elapsedNanos) {
+        endpoints.computeIfAbsent(endpoint, key -> new InvocationStats()).record(statements, elapsedNanos);
+    }
+
+    public Map<String, InvocationStats> getRepositoryMethods() {
+        return new TreeMap<>(repositoryMethods);
+    }
+
+    public Map<String, InvocationStats> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    public Map<String, Object> getHibernateStatistics() {
+        Statistics statistics = hibernateStatistics();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("sessionsOpened", statistics.getSessionOpenCount());
+        summary.put("sessionsClosed", statistics.getSessionCloseCount());
+        summary.put("transactions", statistics.getTransactionCount());
+        summary.put("successfulTransactions", statistics.getSuccessfulTransactionCount());
+        summary.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        summary.put("connectionsObtained", statistics.getConnectCount());
+        summary.put("statementsPrepared", statistics.getPrepareStatementCount());
+        summary.put("flushes", statistics.getFlushCount());
+        summary.put("entityLoads", statistics.getEntityLoadCount());
+        summary.put("entityFetches", statistics.getEntityFetchCount());
+        summary.put("collectionLoads", statistics.getCollectionLoadCount());
+        summary.put("collectionFetches", statistics.getCollectionFetchCount());
+        summary.put("queryExecutions", statistics.getQueryExecutionCount());
+        summary.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        summary.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        summary.put("queryPlanCacheHits", statistics.getQueryPlanCacheHitCount());
+        summary.put("queryPlanCacheMisses", statistics.getQueryPlanCacheMissCount());
+        Map<String, Object> queries = new TreeMap<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("executions", queryStatistics.getExecutionCount());
+            entry.put("rows", queryStatistics.getExecutionRowCount());
+            entry.put("avgTimeMs", queryStatistics.getExecutionAvgTimeAsDouble());
+            entry.put("maxTimeMs", queryStatistics.getExecutionMaxTime());
+            queries.put(query, entry);
+        }
+        summary.put("queries", queries);
+        return summary;
+    }
+
+    public void clear() {
+        repositoryMethods.clear();
+        endpoints.clear();
+        hibernateStatistics().clear();
+    }
+
+    private Statistics hibernateStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.course_management_system.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs how long after JVM start the application became ready and served its
+ * first request, the two numbers that decide how fast a new replica helps.
+ * Requests answered before ready, such as the warm-up's own, do not count, and
+ * neither do readiness probes, which keep polling {@code /ready} after it
+ * turns green.
+ */
+@Slf4j
+@Component
+public class StartupTimer {
+
+    private static final String READINESS_PATH = "/ready";
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ready = true;
+        log.info("Startup: ready {} ms after JVM start", sinceJvmStart());
+    }
+
+    @EventListener(ServletRequestHandledEvent.class)
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (ready && !READINESS_PATH.equals(event.getRequestUrl()) && !firstRequestSeen.get() && firstRequestSeen.compareAndSet(false, true)) {
+            log.info("Startup: first request ({} {}) answered {} ms after JVM start, took {} ms",
+                    event.getMethod(), event.getRequestUrl(), sinceJvmStart(), event.getProcessingTimeMillis());
+        }
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
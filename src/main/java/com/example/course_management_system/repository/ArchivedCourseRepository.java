@@ -0,0 +1,12 @@
+package com.example.course_management_system.repository;
+import com.example.course_management_system.entity.ArchivedCourse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedCourseRepository extends JpaRepository<ArchivedCourse, Long> {
+
+    Page<ArchivedCourse> findAll(Pageable pageable);
+}
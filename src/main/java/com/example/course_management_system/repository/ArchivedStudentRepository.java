@@ -0,0 +1,19 @@
+package com.example.course_management_system.repository;
+import com.example.course_management_system.entity.ArchivedStudent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedStudentRepository extends JpaRepository<ArchivedStudent, Long> {
+
+    // Keyset page of an archived roster in id order
+    @Query("select s from ArchivedStudent s where s.courseId = :courseId and s.id > :afterId order by s.id")
+    List<ArchivedStudent> findRosterPage(Long courseId, Long afterId, Limit limit);
+    // Rows already copied by an archiving batch that did not get to delete the live students
+    @Query("select s.id from ArchivedStudent s where s.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+}
@@ -0,0 +1,7 @@
+package com.example.course_management_system.repository;
+
+/**
+ * Number of students enrolled in a course, from a GROUP BY over students.
+ */
+public record CourseCount(Long courseId, Long students) {
+}
@@ -0,0 +1,15 @@
+package com.example.course_management_system.repository;
+
+import com.example.course_management_system.entity.CourseDeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseDeletionJobRepository extends JpaRepository<CourseDeletionJob, Long> {
+
+    Optional<CourseDeletionJob> findFirstByCourseIdAndStatusIn(Long courseId, Collection<CourseDeletionJob.Status> statuses);
+    List<CourseDeletionJob> findByStatusInOrderById(Collection<CourseDeletionJob.Status> statuses);
+}
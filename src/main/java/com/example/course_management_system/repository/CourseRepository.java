@@ -1,12 +1,39 @@
 package com.example.course_management_system.repository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import com.example.course_management_system.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
     Page<Course> findAll(Pageable pageable);
+    // Fetches size + 1 rows to work out hasNext, no COUNT query
+    Slice<Course> findAllBy(Pageable pageable);
+    List<Course> findByIdIn(Collection<Long> ids);
+    @Query("select c.id from Course c")
+    List<Long> findAllIds();
+    @Query("select c.id from Course c where c.name = :name")
+    Optional<Long> findIdByName(String name);
+    // Inactive courses no archiver holds a live claim on
+    @Query("select c.id from Course c where c.inactiveSince <= :inactiveBefore"
+            + " and (c.archivingSince is null or c.archivingSince <= :claimedBefore) order by c.id")
+    List<Long> findIdsToArchive(Instant inactiveBefore, Instant claimedBefore, Limit limit);
+    // Returns 0 when the course changed since it was read at this version
+    @Modifying
+    @Query("update Course c set c.version = c.version + 1 where c.id = :id and c.version = :version")
+    int incrementVersion(Long id, long version);
+    // Rows written before the version column was made not null; see VersionBackfill
+    @Modifying
+    @Query(value = "update courses set version = 0 where version is null", nativeQuery = true)
+    int backfillVersions();
 }
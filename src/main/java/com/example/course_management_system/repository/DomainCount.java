@@ -0,0 +1,7 @@
+package com.example.course_management_system.repository;
+
+/**
+ * Number of students whose email is at a domain, from a GROUP BY over students.
+ */
+public record DomainCount(String domain, Long students) {
+}
@@ -0,0 +1,10 @@
+package com.example.course_management_system.repository;
+
+import com.example.course_management_system.entity.EntityChange;
+import java.util.List;
+
+public interface EntityChangeBatchInserts {
+
+    /** Inserts the changes in JDBC batches; their ids are left unset. */
+    void insertAll(List<EntityChange> changes);
+}
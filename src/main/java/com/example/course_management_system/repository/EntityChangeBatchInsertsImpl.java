@@ -0,0 +1,45 @@
+package com.example.course_management_system.repository;
+
+import com.example.course_management_system.entity.EntityChange;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * One JDBC batch per call instead of one identity insert per change, for
+ * transactions that change many rows at once. Runs on the caller's connection
+ * and transaction.
+ */
+class EntityChangeBatchInsertsImpl implements EntityChangeBatchInserts {
+
+    private static final String INSERT = "insert into entity_changes "
+            + "(origin, entity_type, change_type, entity_id, course_id, previous_course_id, created_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    EntityChangeBatchInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<EntityChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, changes, changes.size(), (statement, change) -> {
+            statement.setString(1, change.getOrigin());
+            statement.setString(2, change.getEntityType().name());
+            statement.setString(3, change.getChangeType().name());
+            statement.setLong(4, change.getEntityId());
+            statement.setObject(5, change.getCourseId(), Types.BIGINT);
+            statement.setObject(6, change.getPreviousCourseId(), Types.BIGINT);
+            // Written in UTC, as Hibernate writes the Instant
+            statement.setTimestamp(7, Timestamp.from(change.getCreatedAt()),
+                    Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.course_management_system.repository;
+
+import com.example.course_management_system.entity.EntityChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EntityChangeRepository extends JpaRepository<EntityChange, Long>, EntityChangeBatchInserts {
+
+    List<EntityChange> findByIdGreaterThanOrderById(Long id, Limit limit);
+    @Query("select max(c.id) from EntityChange c")
+    Optional<Long> findMaxId();
+    @Transactional
+    @Modifying
+    @Query("delete from EntityChange c where c.createdAt < :before")
+    int deleteCreatedBefore(Instant before);
+}
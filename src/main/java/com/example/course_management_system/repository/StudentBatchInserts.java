@@ -0,0 +1,13 @@
+package com.example.course_management_system.repository;
+
+import com.example.course_management_system.entity.Student;
+import java.util.List;
+
+public interface StudentBatchInserts {
+
+    /**
+     * Inserts new students of one course in JDBC batches and sets their
+     * generated ids. The students are not attached to the persistence context.
+     */
+    void insertAll(Long courseId, List<Student> students);
+}
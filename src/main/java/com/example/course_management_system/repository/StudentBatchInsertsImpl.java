@@ -0,0 +1,62 @@
+package com.example.course_management_system.repository;
+
+import com.example.course_management_system.entity.Student;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate sends identity-generated inserts one statement at a time, so a
+ * whole roster goes through plain JDBC batches instead: one round trip per
+ * {@code cms.student-inserts.batch-size} rows, or a single multi-row insert
+ * per batch on MySQL with {@code rewriteBatchedStatements}. It runs on the
+ * caller's connection and transaction, so on the shard the caller switched to.
+ */
+class StudentBatchInsertsImpl implements StudentBatchInserts {
+
+    private static final String INSERT = "insert into students (version, name, email, course_id) values (0, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    StudentBatchInsertsImpl(JdbcTemplate jdbcTemplate,
+                            @Value("${cms.student-inserts.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void insertAll(Long courseId, List<Student> students) {
+        for (int from = 0; from < students.size(); from += batchSize) {
+            List<Student> batch = students.subList(from, Math.min(from + batchSize, students.size()));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[] {"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            Student student = batch.get(i);
+                            statement.setString(1, student.getName());
+                            statement.setString(2, student.getEmail());
+                            statement.setLong(3, courseId);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> generated = keys.getKeyList();
+            for (int i = 0; i < batch.size(); i++) {
+                Student student = batch.get(i);
+                student.setId(((Number) generated.get(i).values().iterator().next()).longValue());
+                student.setVersion(0L);
+            }
+        }
+    }
+}
@@ -1,15 +1,55 @@
 package com.example.course_management_system.repository;
 
 import com.example.course_management_system.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentBatchInserts {
 
     Page <Student> findAll(Pageable pageable);
+    // Fetches size + 1 rows to work out hasNext, no COUNT query
+    Slice<Student> findAllBy(Pageable pageable);
+    // Filters on the foreign key column, without the join to courses a derived query adds
+    @Query("select s from Student s where s.course.id = :courseId")
     List <Student> findByCourseId(Long courseId);
-}
\ No newline at end of file
+    // Keyset pages of flat rows, used to build the in-memory roster index
+    @Query("select new com.example.course_management_system.repository.StudentRow(s.id, s.course.id, s.name, s.email) "
+            + "from Student s where s.id > :afterId order by s.id")
+    List<StudentRow> findRowsAfter(Long afterId, Limit limit);
+    @Query("select new com.example.course_management_system.repository.StudentRow(s.id, s.course.id, s.name, s.email) "
+            + "from Student s where s.id = :id")
+    Optional<StudentRow> findRowById(Long id);
+    @Query("select new com.example.course_management_system.repository.StudentRow(s.id, s.course.id, s.name, s.email) "
+            + "from Student s where s.course.id = :courseId order by s.id")
+    List<StudentRow> findRowsByCourseId(Long courseId);
+    // Keyset page of a roster in id order, read by course detail responses instead of the whole collection
+    @Query("select s from Student s where s.course.id = :courseId and s.id > :afterId order by s.id")
+    List<Student> findRosterPage(Long courseId, Long afterId, Limit limit);
+    @Query("select s.id from Student s where s.course.id = :courseId order by s.id")
+    List<Long> findIdsByCourseId(Long courseId, Limit limit);
+    // Aggregates for CourseAnalytics; courses without students do not appear
+    @Query("select new com.example.course_management_system.repository.CourseCount(s.course.id, count(s)) "
+            + "from Student s group by s.course.id")
+    List<CourseCount> countByCourse();
+    @Query("select new com.example.course_management_system.repository.DomainCount("
+            + "lower(substring(s.email, locate('@', s.email) + 1)), count(s)) "
+            + "from Student s group by lower(substring(s.email, locate('@', s.email) + 1))")
+    List<DomainCount> countByEmailDomain();
+    // For a course whose students live on another shard, out of reach of the course's cascade
+    @Modifying
+    @Query("delete from Student s where s.course.id = :courseId")
+    int deleteByCourseIdInBatch(Long courseId);
+    // Rows written before the version column was made not null; see VersionBackfill
+    @Modifying
+    @Query(value = "update students set version = 0 where version is null", nativeQuery = true)
+    int backfillVersions();
+}
@@ -0,0 +1,8 @@
+package com.example.course_management_system.repository;
+
+/**
+ * Flat projection of a student, read without materializing the entity or
+ * its course.
+ */
+public record StudentRow(Long id, Long courseId, String name, String email) {
+}
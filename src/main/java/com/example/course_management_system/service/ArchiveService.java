@@ -0,0 +1,14 @@
+package com.example.course_management_system.service;
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import org.springframework.data.domain.Page;
+
+public interface ArchiveService {
+
+    CourseDTO getArchivedCourseById(Long id);
+    RosterPageDTO getArchivedCourseStudents(Long id, Long after, int limit);
+    Page<CourseDTO> getAllArchivedCourses(int page, int size, String sortBy, String sortDir);
+    StudentDTO getArchivedStudentById(Long id);
+
+}
@@ -0,0 +1,79 @@
+package com.example.course_management_system.service;
+
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.entity.ArchivedCourse;
+import com.example.course_management_system.entity.ArchivedStudent;
+import com.example.course_management_system.exception.ResourceNotFoundException;
+import com.example.course_management_system.repository.ArchivedCourseRepository;
+import com.example.course_management_system.repository.ArchivedStudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private final ArchivedCourseRepository archivedCourseRepository;
+    private final ArchivedStudentRepository archivedStudentRepository;
+    private final ModelMapper modelMapper;
+
+    @Override
+    // Same shape as a live course detail: the first students, then paged through getArchivedCourseStudents
+    public CourseDTO getArchivedCourseById(Long id) {
+        ArchivedCourse course = archivedCourseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived course not found with id: " + id));
+        RosterPageDTO preview = readRosterPage(id, 0L, CourseDTO.STUDENT_PREVIEW_SIZE);
+        return CourseDTO.builder()
+                .id(course.getId())
+                .name(course.getName())
+                .students(preview.getStudents())
+                .nextStudentsCursor(preview.getNextCursor())
+                .build();
+    }
+    @Override
+    public RosterPageDTO getArchivedCourseStudents(Long id, Long after, int limit) {
+        RosterPageDTO page = readRosterPage(id, after,
+                Math.max(1, Math.min(limit, CourseServiceImpl.MAX_ROSTER_PAGE_SIZE)));
+        if (page.getStudents().isEmpty() && !archivedCourseRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Archived course not found with id: " + id);
+        }
+        return page;
+    }
+    @Override
+    // Listings leave the rosters out; they are read per course
+    public Page<CourseDTO> getAllArchivedCourses(int page, int size, String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        return archivedCourseRepository.findAll(PageRequest.of(page, size, sort))
+                .map(course -> modelMapper.map(course, CourseDTO.class));
+    }
+    @Override
+    public StudentDTO getArchivedStudentById(Long id) {
+        ArchivedStudent student = archivedStudentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived student not found with id: " + id));
+        return toDto(student);
+    }
+
+    private RosterPageDTO readRosterPage(Long courseId, Long after, int limit) {
+        // One extra row tells whether another page follows
+        List<ArchivedStudent> students = archivedStudentRepository.findRosterPage(courseId, after, Limit.of(limit + 1));
+        boolean hasNext = students.size() > limit;
+        List<StudentDTO> page = students.stream().limit(limit).map(this::toDto).toList();
+        return new RosterPageDTO(page, hasNext ? students.get(limit - 1).getId() : null);
+    }
+
+    private StudentDTO toDto(ArchivedStudent student) {
+        return new StudentDTO(student.getId(), student.getName(), student.getEmail(), student.getCourseId());
+    }
+}
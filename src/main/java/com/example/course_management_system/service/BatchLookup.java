@@ -0,0 +1,52 @@
+package com.example.course_management_system.service;
+
+import com.example.course_management_system.dto.BatchResult;
+import com.example.course_management_system.exception.BadRequestException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves a list of ids with bounded IN queries and reassembles the results
+ * in request order, collecting the ids that were not found.
+ */
+final class BatchLookup {
+
+    static final int MAX_IDS = 1000;
+    static final int IN_CHUNK_SIZE = 200;
+
+    private BatchLookup() {
+    }
+
+    static <E, D> BatchResult<D> lookup(List<Long> ids,
+                                        Function<List<Long>, List<E>> loader,
+                                        Function<E, Long> idOf,
+                                        Function<E, D> mapper) {
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, D> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + IN_CHUNK_SIZE, distinctIds.size()));
+            for (E entity : loader.apply(chunk)) {
+                found.put(idOf.apply(entity), mapper.apply(entity));
+            }
+        }
+        List<D> items = new ArrayList<>(ids.size());
+        Set<Long> missingIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            D item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchResult<>(items, new ArrayList<>(missingIds));
+    }
+}
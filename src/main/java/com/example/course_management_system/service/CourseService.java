@@ -1,13 +1,31 @@
 package com.example.course_management_system.service;
+import com.example.course_management_system.dto.BatchResult;
+import com.example.course_management_system.dto.CourseAnalyticsDTO;
 import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.CourseDeletionJobDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import java.util.List;
+import java.util.Optional;
 
 public interface CourseService {
 
     CourseDTO createCourse(CourseDTO courseDTO);
     CourseDTO getCourseById(Long id);
+    Long getCourseIdByName(String name);
+    RosterPageDTO getCourseStudents(Long id, Long after, int limit);
+    Optional<byte[]> findCourseSnapshot(Long id);
+    BatchResult<CourseDTO> getCoursesByIds(List<Long> ids);
     Page<CourseDTO> getAllCourses(int page, int size, String sortBy, String sortDir);
+    Slice<CourseDTO> getCoursesSlice(int page, int size, String sortBy, String sortDir);
+    long getApproximateCourseCount();
+    Optional<CourseAnalyticsDTO> getAnalytics();
     CourseDTO updateCourse(Long id, CourseDTO courseDTO);
+    CourseDTO patchCourse(Long id, CourseDTO patch);
+    void setCourseActive(Long id, boolean active);
     void deleteCourse(Long id);
+    CourseDeletionJobDTO startCourseDeletion(Long id);
+    CourseDeletionJobDTO getCourseDeletionJob(Long jobId);
 
 }
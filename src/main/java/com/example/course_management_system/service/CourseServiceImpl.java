@@ -1,57 +1,296 @@
 package com.example.course_management_system.service;
 
+import com.example.course_management_system.analytics.CourseAnalytics;
+import com.example.course_management_system.cache.ApproximateCounts;
+import com.example.course_management_system.cache.CourseNames;
+import com.example.course_management_system.cache.HotPages;
+import com.example.course_management_system.cache.HotPages.Listing;
+import com.example.course_management_system.cache.HotPages.Shape;
+import com.example.course_management_system.cache.MissingIds;
+import com.example.course_management_system.cache.SingleFlight;
+import com.example.course_management_system.dto.BatchResult;
+import com.example.course_management_system.dto.CourseAnalyticsDTO;
 import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.datasource.Shard;
+import com.example.course_management_system.dto.CourseDeletionJobDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
+import com.example.course_management_system.dto.StudentDTO;
 import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.CourseDeletionJob;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import com.example.course_management_system.exception.ConflictException;
 import com.example.course_management_system.exception.ResourceNotFoundException;
+import com.example.course_management_system.repository.CourseDeletionJobRepository;
 import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import com.example.course_management_system.snapshot.RosterSnapshots;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class CourseServiceImpl implements CourseService {
 
+    static final int MAX_ROSTER_PAGE_SIZE = 1000;
+
     private final CourseRepository courseRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateCounts approximateCounts;
+    private final RosterSnapshots rosterSnapshots;
+    private final CourseDeletionJobRepository deletionJobRepository;
+    private final StudentRepository studentRepository;
+    private final StudentShards studentShards;
+    private final MissingIds missingIds;
+    private final CourseAnalytics courseAnalytics;
+    private final CourseNames courseNames;
+    private final HotPages hotPages;
+    private final SingleFlight<Long, CourseDTO> courseLoads = new SingleFlight<>();
 
     @Override
+    @Transactional
+    // A roster in the request is stored in the same transaction, in batched inserts on the course's shard
     public CourseDTO createCourse(CourseDTO courseDTO) {
         Course course = modelMapper.map(courseDTO, Course.class);
+        // The mapped students are not linked back to the course; they are inserted below instead
+        course.setStudents(new ArrayList<>());
         Course savedCourse = courseRepository.save(course);
-        return modelMapper.map(savedCourse, CourseDTO.class);
+        AfterCommit.run(() -> courseNames.put(savedCourse.getName(), savedCourse.getId()));
+        eventPublisher.publishEvent(EntityChangeEvent.course(ChangeType.CREATED, savedCourse.getId()));
+        CourseDTO created = modelMapper.map(savedCourse, CourseDTO.class);
+        if (courseDTO.getStudents() == null || courseDTO.getStudents().isEmpty()) {
+            return created;
+        }
+        List<Student> roster = courseDTO.getStudents().stream()
+                .map(student -> Student.builder()
+                        .name(student.getName())
+                        .email(student.getEmail())
+                        .course(savedCourse)
+                        .build())
+                .toList();
+        Long id = savedCourse.getId();
+        studentShards.write(studentShards.shardOf(id), () -> studentRepository.insertAll(id, roster));
+        roster.forEach(student ->
+                eventPublisher.publishEvent(EntityChangeEvent.student(ChangeType.CREATED, student.getId(), id)));
+        // Same shape as getCourseById: the first students, the rest paged through getCourseStudents
+        List<StudentDTO> students = roster.stream()
+                .map(student -> new StudentDTO(student.getId(), student.getName(), student.getEmail(), id))
+                .toList();
+        created.setStudents(students.subList(0, Math.min(students.size(), CourseDTO.STUDENT_PREVIEW_SIZE)));
+        created.setNextStudentsCursor(students.size() > CourseDTO.STUDENT_PREVIEW_SIZE
+                ? students.get(CourseDTO.STUDENT_PREVIEW_SIZE - 1).getId() : null);
+        return created;
     }
     @Override
+    // Joins no transaction up front, so an id known to be missing is answered without a connection;
+    // only the first students are embedded, read with a limited query rather than the students collection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CourseDTO getCourseById(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
-        return modelMapper.map(course, CourseDTO.class);
+        return courseLoads.load(id, () -> {
+            Course course = missingIds.find(EntityType.COURSE, id, () -> courseRepository.findById(id))
+                    .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+            return toDetail(course);
+        });
+    }
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RosterPageDTO getCourseStudents(Long id, Long after, int limit) {
+        if (missingIds.isMissing(EntityType.COURSE, id)) {
+            throw new ResourceNotFoundException("Course not found with id: " + id);
+        }
+        RosterPageDTO page = readRosterPage(id, after, Math.max(1, Math.min(limit, MAX_ROSTER_PAGE_SIZE)));
+        // An empty page is either the end of the roster or an unknown course
+        if (page.getStudents().isEmpty() && !courseRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Course not found with id: " + id);
+        }
+        return page;
+    }
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Long getCourseIdByName(String name) {
+        return courseNames.find(name, () -> courseRepository.findIdByName(name))
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with name: " + name));
+    }
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<byte[]> findCourseSnapshot(Long id) {
+        if (missingIds.isMissing(EntityType.COURSE, id)) {
+            return Optional.empty();
+        }
+        return rosterSnapshots.findCourseJson(id);
+    }
+    @Override
+    // Listings and batch lookups carry no roster; each course's students are paged through getCourseStudents
+    public BatchResult<CourseDTO> getCoursesByIds(List<Long> ids) {
+        return BatchLookup.lookup(ids, courseRepository::findByIdIn, Course::getId,
+                CourseServiceImpl::toSummary);
     }
     @Override
     public Page<CourseDTO> getAllCourses(int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Course> courses = courseRepository.findAll(pageable);
-        return courses.map(course -> modelMapper.map(course, CourseDTO.class));
+        return hotPages.get(Listing.COURSES, new Shape(page, size, sortBy, sortDir),
+                () -> courseRepository.findAll(toPageable(page, size, sortBy, sortDir)).map(CourseServiceImpl::toSummary));
+    }
+    @Override
+    public Slice<CourseDTO> getCoursesSlice(int page, int size, String sortBy, String sortDir) {
+        if (hotPages.isHot(Listing.COURSES, new Shape(page, size, sortBy, sortDir))) {
+            Page<CourseDTO> courses = getAllCourses(page, size, sortBy, sortDir);
+            return new SliceImpl<>(courses.getContent(), courses.getPageable(), courses.hasNext());
+        }
+        Slice<Course> courses = courseRepository.findAllBy(toPageable(page, size, sortBy, sortDir));
+        return courses.map(CourseServiceImpl::toSummary);
+    }
+    @Override
+    public long getApproximateCourseCount() {
+        return approximateCounts.getCourses();
+    }
+    @Override
+    public Optional<CourseAnalyticsDTO> getAnalytics() {
+        return Optional.ofNullable(courseAnalytics.getCurrent());
     }
     @Override
+    @Transactional
+    // The response has the same shape as getCourseById and patchCourse
     public CourseDTO updateCourse(Long id, CourseDTO courseDTO) {
         Course existingCourse = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
         existingCourse.setName(courseDTO.getName());
         Course updatedCourse = courseRepository.save(existingCourse);
-        return modelMapper.map(updatedCourse, CourseDTO.class);
+        publishRename(updatedCourse);
+        return toDetail(updatedCourse);
+    }
+    @Override
+    @Transactional
+    // A missing or unchanged name writes nothing; the response has the same shape as getCourseById
+    public CourseDTO patchCourse(Long id, CourseDTO patch) {
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        if (patch.getName() == null || patch.getName().equals(course.getName())) {
+            return toDetail(course);
+        }
+        course.setName(patch.getName());
+        Course updatedCourse = courseRepository.save(course);
+        publishRename(updatedCourse);
+        return toDetail(updatedCourse);
     }
     @Override
+    @Transactional
+    // An inactive course stays live until CourseArchiver moves it after the grace period
+    public void setCourseActive(Long id, boolean active) {
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        if (active) {
+            requireNotArchiving(course);
+            course.setInactiveSince(null);
+        } else if (course.getInactiveSince() == null) {
+            course.setInactiveSince(Instant.now());
+        }
+    }
+    @Override
+    @Transactional
     public void deleteCourse(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        requireNotArchiving(course);
+        int shard = studentShards.shardOf(id);
+        if (shard != Shard.HOME) {
+            studentShards.write(shard, () -> studentRepository.deleteByCourseIdInBatch(id));
+        }
         courseRepository.delete(course);
+        AfterCommit.run(() -> {
+            courseLoads.forget(id);
+            courseNames.forget(id);
+        });
+        eventPublisher.publishEvent(EntityChangeEvent.course(ChangeType.DELETED, id));
+    }
+    @Override
+    @Transactional
+    public CourseDeletionJobDTO startCourseDeletion(Long id) {
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        requireNotArchiving(course);
+        // CourseDeletionJobRunner picks the job up; a second request joins the job already queued
+        CourseDeletionJob job = deletionJobRepository.findFirstByCourseIdAndStatusIn(id, CourseDeletionJob.Status.ACTIVE)
+                .orElseGet(() -> deletionJobRepository.save(CourseDeletionJob.builder().courseId(id).build()));
+        return modelMapper.map(job, CourseDeletionJobDTO.class);
+    }
+    @Override
+    public CourseDeletionJobDTO getCourseDeletionJob(Long jobId) {
+        CourseDeletionJob job = deletionJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Deletion job not found with id: " + jobId));
+        return modelMapper.map(job, CourseDeletionJobDTO.class);
+    }
+
+    private static void requireNotArchiving(Course course) {
+        // Part of the roster may already be in the archive; the archiver's claim bumps the version,
+        // so a change that read the course before the claim fails on commit instead
+        if (course.getArchivingSince() != null) {
+            throw new ConflictException("Course " + course.getId() + " is being archived");
+        }
+    }
+
+    private static CourseDTO toSummary(Course course) {
+        // Built by hand: mapping the entity would initialize its students collection
+        return CourseDTO.builder()
+                .id(course.getId())
+                .name(course.getName())
+                .build();
+    }
+
+    private void publishRename(Course course) {
+        Long id = course.getId();
+        AfterCommit.run(() -> {
+            courseLoads.forget(id);
+            courseNames.put(course.getName(), id);
+        });
+        eventPublisher.publishEvent(EntityChangeEvent.course(ChangeType.UPDATED, id));
+    }
+
+    private CourseDTO toDetail(Course course) {
+        RosterPageDTO preview = readRosterPage(course.getId(), 0L, CourseDTO.STUDENT_PREVIEW_SIZE);
+        return CourseDTO.builder()
+                .id(course.getId())
+                .name(course.getName())
+                .students(preview.getStudents())
+                .nextStudentsCursor(preview.getNextCursor())
+                .build();
+    }
+
+    private RosterPageDTO readRosterPage(Long courseId, Long after, int limit) {
+        // One extra row tells whether another page follows
+        List<Student> students = studentShards.read(studentShards.shardOf(courseId),
+                () -> studentRepository.findRosterPage(courseId, after, Limit.of(limit + 1)));
+        boolean hasNext = students.size() > limit;
+        List<StudentDTO> page = students.stream()
+                .limit(limit)
+                .map(student -> modelMapper.map(student, StudentDTO.class))
+                .toList();
+        return new RosterPageDTO(page, hasNext ? students.get(limit - 1).getId() : null);
+    }
+
+    private Pageable toPageable(int page, int size, String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        return PageRequest.of(page, size, sort);
     }
 }
\ No newline at end of file
@@ -1,15 +1,23 @@
 package com.example.course_management_system.service;
+import com.example.course_management_system.dto.BatchResult;
 import com.example.course_management_system.dto.StudentDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import java.util.List;
+import java.util.Optional;
 
 public interface StudentService {
 
     StudentDTO createStudent(StudentDTO studentDTO);
     StudentDTO getStudentById(Long id);
+    BatchResult<StudentDTO> getStudentsByIds(List<Long> ids);
     Page<StudentDTO> getAllStudents(int page, int size, String sortBy, String sortDir);
+    Slice<StudentDTO> getStudentsSlice(int page, int size, String sortBy, String sortDir);
+    long getApproximateStudentCount();
     List<StudentDTO> getStudentsByCourseId(Long courseId);
+    Optional<byte[]> findRosterSnapshot(Long courseId);
     StudentDTO updateStudent(Long id, StudentDTO studentDTO);
+    StudentDTO patchStudent(Long id, StudentDTO patch);
     void deleteStudent(Long id);
 
 }
@@ -1,77 +1,242 @@
 package com.example.course_management_system.service;
 
+import com.example.course_management_system.cache.ApproximateCounts;
+import com.example.course_management_system.cache.HotPages;
+import com.example.course_management_system.cache.HotPages.Listing;
+import com.example.course_management_system.cache.HotPages.Shape;
+import com.example.course_management_system.cache.MissingIds;
+import com.example.course_management_system.cache.SingleFlight;
+import com.example.course_management_system.dto.BatchResult;
 import com.example.course_management_system.dto.StudentDTO;
 import com.example.course_management_system.entity.Course;
 import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
 import com.example.course_management_system.exception.ResourceNotFoundException;
+import com.example.course_management_system.index.RosterIndex;
 import com.example.course_management_system.repository.CourseRepository;
 import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.ShardedPages;
+import com.example.course_management_system.sharding.StudentShards;
+import com.example.course_management_system.snapshot.RosterSnapshots;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class StudentServiceImpl implements StudentService {
 
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateCounts approximateCounts;
+    private final RosterSnapshots rosterSnapshots;
+    private final RosterIndex rosterIndex;
+    private final StudentShards studentShards;
+    private final MissingIds missingIds;
+    private final HotPages hotPages;
+    private final SingleFlight<Long, List<StudentDTO>> rosterLoads = new SingleFlight<>();
 
     @Override
+    @Transactional
     public StudentDTO createStudent(StudentDTO studentDTO) {
         Course course = courseRepository.findById(studentDTO.getCourseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + studentDTO.getCourseId()));
         Student student = modelMapper.map(studentDTO, Student.class);
         student.setCourse(course);
-        Student savedStudent = studentRepository.save(student);
+        Student savedStudent = studentShards.write(studentShards.shardOf(course.getId()),
+                () -> studentRepository.save(student));
+        AfterCommit.run(() -> rosterLoads.forget(course.getId()));
+        eventPublisher.publishEvent(EntityChangeEvent.student(ChangeType.CREATED, savedStudent.getId(), course.getId()));
         return modelMapper.map(savedStudent, StudentDTO.class);
     }
     @Override
+    // Joins no transaction up front, so an id known to be missing is answered without a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public StudentDTO getStudentById(Long id) {
-        Student student = studentRepository.findById(id)
+        Student student = missingIds.find(EntityType.STUDENT, id, () ->
+                        studentShards.read(studentShards.shardOfStudent(id), () -> studentRepository.findById(id)))
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
         return modelMapper.map(student, StudentDTO.class);
     }
     @Override
+    public BatchResult<StudentDTO> getStudentsByIds(List<Long> ids) {
+        return BatchLookup.lookup(ids, this::findAllById, Student::getId,
+                student -> modelMapper.map(student, StudentDTO.class));
+    }
+    @Override
     public Page<StudentDTO> getAllStudents(int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Student> students = studentRepository.findAll(pageable);
+        return hotPages.get(Listing.STUDENTS, new Shape(page, size, sortBy, sortDir),
+                () -> readStudentsPage(toPageable(page, size, sortBy, sortDir)));
+    }
+    @Override
+    public Slice<StudentDTO> getStudentsSlice(int page, int size, String sortBy, String sortDir) {
+        if (hotPages.isHot(Listing.STUDENTS, new Shape(page, size, sortBy, sortDir))) {
+            Page<StudentDTO> students = getAllStudents(page, size, sortBy, sortDir);
+            return new SliceImpl<>(students.getContent(), students.getPageable(), students.hasNext());
+        }
+        Pageable pageable = toPageable(page, size, sortBy, sortDir);
+        Slice<Student> students = studentShards.isSharded()
+                ? ShardedPages.mergeSlices(studentShards.readAll(
+                        () -> studentRepository.findAllBy(ShardedPages.perShard(pageable))), pageable)
+                : studentRepository.findAllBy(pageable);
         return students.map(student -> modelMapper.map(student, StudentDTO.class));
     }
     @Override
+    public long getApproximateStudentCount() {
+        return approximateCounts.getStudents();
+    }
+    @Override
     public List<StudentDTO> getStudentsByCourseId(Long courseId) {
-        List<Student> students = studentRepository.findByCourseId(courseId);
-        return students.stream()
-                .map(student -> modelMapper.map(student, StudentDTO.class))
-                .collect(Collectors.toList());
+        Optional<List<StudentDTO>> indexed = rosterIndex.findRoster(courseId);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        return rosterLoads.load(courseId, () -> {
+            List<Student> students = studentShards.read(studentShards.shardOf(courseId),
+                    () -> studentRepository.findByCourseId(courseId));
+            return students.stream()
+                    .map(student -> modelMapper.map(student, StudentDTO.class))
+                    .collect(Collectors.toList());
+        });
+    }
+    @Override
+    public Optional<byte[]> findRosterSnapshot(Long courseId) {
+        return rosterSnapshots.findRosterJson(courseId);
     }
     @Override
+    @Transactional
     public StudentDTO updateStudent(Long id, StudentDTO studentDTO) {
-        Student existingStudent = studentRepository.findById(id)
+        int shard = studentShards.shardOfStudent(id);
+        Student existingStudent = studentShards.read(shard, () -> studentRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
         Course course = courseRepository.findById(studentDTO.getCourseId())
                 .orElseThrow(() -> new ResourceNotFoundException
                         ("Course not found with id: " + studentDTO.getCourseId()));
+        int targetShard = studentShards.shardOf(studentDTO.getCourseId());
+        if (targetShard != shard) {
+            return moveStudent(existingStudent, studentDTO, course, shard, targetShard);
+        }
+        Long previousCourseId = existingStudent.getCourse().getId();
         existingStudent.setName(studentDTO.getName());
         existingStudent.setEmail(studentDTO.getEmail());
         existingStudent.setCourse(course);
-        Student updatedStudent = studentRepository.save(existingStudent);
+        Student updatedStudent = studentShards.write(shard, () -> studentRepository.save(existingStudent));
+        AfterCommit.run(() -> rosterLoads.forget(previousCourseId));
+        AfterCommit.run(() -> rosterLoads.forget(course.getId()));
+        eventPublisher.publishEvent(EntityChangeEvent.studentMoved(id, course.getId(), previousCourseId));
         return modelMapper.map(updatedStudent, StudentDTO.class);
     }
     @Override
+    @Transactional
+    // Null fields are left as they are; the course is only read when it changes, and nothing is written
+    // when every given field already has its value
+    public StudentDTO patchStudent(Long id, StudentDTO patch) {
+        int shard = studentShards.shardOfStudent(id);
+        Student student = studentShards.read(shard, () -> studentRepository.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        Long previousCourseId = student.getCourse().getId();
+        Long courseId = patch.getCourseId() != null ? patch.getCourseId() : previousCourseId;
+        String name = patch.getName() != null ? patch.getName() : student.getName();
+        String email = patch.getEmail() != null ? patch.getEmail() : student.getEmail();
+        boolean courseChanged = !courseId.equals(previousCourseId);
+        if (!courseChanged && name.equals(student.getName()) && email.equals(student.getEmail())) {
+            return modelMapper.map(student, StudentDTO.class);
+        }
+        if (courseChanged) {
+            Course course = courseRepository.findById(courseId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+            int targetShard = studentShards.shardOf(courseId);
+            if (targetShard != shard) {
+                return moveStudent(student, new StudentDTO(id, name, email, courseId), course, shard, targetShard);
+            }
+            student.setCourse(course);
+        }
+        student.setName(name);
+        student.setEmail(email);
+        Student updatedStudent = studentShards.write(shard, () -> studentRepository.save(student));
+        AfterCommit.run(() -> rosterLoads.forget(previousCourseId));
+        AfterCommit.run(() -> rosterLoads.forget(courseId));
+        eventPublisher.publishEvent(EntityChangeEvent.studentMoved(id, courseId, previousCourseId));
+        return modelMapper.map(updatedStudent, StudentDTO.class);
+    }
+    @Override
+    @Transactional
     public void deleteStudent(Long id) {
-        Student student = studentRepository.findById(id)
+        int shard = studentShards.shardOfStudent(id);
+        Student student = studentShards.read(shard, () -> studentRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
-        studentRepository.delete(student);
+        studentShards.write(shard, () -> studentRepository.delete(student));
+        AfterCommit.run(() -> rosterLoads.forget(student.getCourse().getId()));
+        eventPublisher.publishEvent(EntityChangeEvent.student(ChangeType.DELETED, id, student.getCourse().getId()));
+    }
+
+    private List<Student> findAllById(List<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = ids.stream().collect(Collectors.groupingBy(studentShards::shardOfStudent));
+        List<Student> students = new ArrayList<>(ids.size());
+        idsByShard.forEach((shard, shardIds) ->
+                students.addAll(studentShards.read(shard, () -> studentRepository.findAllById(shardIds))));
+        return students;
+    }
+
+    /**
+     * A course on another shard means another database, so the student is
+     * created there under an id from that shard's range, and the old row is
+     * deleted if it has not changed since it was read. Listeners see the move
+     * as a delete of the old id and a create of the new one.
+     */
+    private StudentDTO moveStudent(Student student, StudentDTO studentDTO, Course course, int shard, int targetShard) {
+        Long previousCourseId = student.getCourse().getId();
+        Student movedStudent = Student.builder()
+                .name(studentDTO.getName())
+                .email(studentDTO.getEmail())
+                .course(course)
+                .build();
+        studentShards.write(targetShard, () -> studentRepository.save(movedStudent));
+        try {
+            studentShards.write(shard, () -> studentRepository.delete(student));
+        } catch (OptimisticLockingFailureException ex) {
+            studentShards.write(targetShard, () -> studentRepository.deleteById(movedStudent.getId()));
+            throw ex;
+        }
+        AfterCommit.run(() -> rosterLoads.forget(previousCourseId));
+        AfterCommit.run(() -> rosterLoads.forget(course.getId()));
+        eventPublisher.publishEvent(EntityChangeEvent.student(ChangeType.DELETED, student.getId(), previousCourseId));
+        eventPublisher.publishEvent(EntityChangeEvent.student(ChangeType.CREATED, movedStudent.getId(), course.getId()));
+        return modelMapper.map(movedStudent, StudentDTO.class);
+    }
+
+    private Page<StudentDTO> readStudentsPage(Pageable pageable) {
+        Page<Student> students = studentShards.isSharded()
+                ? ShardedPages.mergePages(studentShards.readAll(
+                        () -> studentRepository.findAll(ShardedPages.perShard(pageable))), pageable)
+                : studentRepository.findAll(pageable);
+        return students.map(student -> modelMapper.map(student, StudentDTO.class));
+    }
+
+    private Pageable toPageable(int page, int size, String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name())
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        return PageRequest.of(page, size, sort);
     }
 }
\ No newline at end of file
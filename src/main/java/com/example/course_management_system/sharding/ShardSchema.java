@@ -0,0 +1,135 @@
+package com.example.course_management_system.sharding;
+
+import com.example.course_management_system.datasource.Shard;
+import com.example.course_management_system.entity.Student;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.SchemaToolingSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.jdbc.connections.spi.JdbcConnectionAccess;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manages the {@code students} table on the extra shards with the same schema
+ * action as the home database ({@code spring.jpa.hibernate.ddl-auto}). It runs
+ * while the session factory is built, so the shards are ready by the time the
+ * entity manager is. Each extra shard's id column is then moved to the start
+ * of that shard's id range.
+ * <p>
+ * With shards configured, the students-to-courses foreign key is not created
+ * on any database: courses only exist at home, so the service checks them.
+ */
+public class ShardSchema implements Integrator {
+
+    private final int shardCount;
+
+    public ShardSchema(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        if (shardCount == 1) {
+            return;
+        }
+        Table students = metadata.getEntityBinding(Student.class.getName()).getTable();
+        students.getForeignKeys().values().forEach(ForeignKey::disableCreation);
+        Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+        settings.put(SchemaToolingSettings.HBM2DDL_FILTER_PROVIDER, new OnlyTable(students));
+        for (int shard = Shard.HOME + 1; shard < shardCount; shard++) {
+            int previous = Shard.switchTo(shard);
+            try {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings,
+                        action -> { });
+                startIdsAt(sessionFactory.getJdbcServices(), students.getName(), StudentShards.firstIdOf(shard));
+            } finally {
+                Shard.switchTo(previous);
+            }
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private static void startIdsAt(JdbcServices jdbcServices, String table, long firstId) {
+        JdbcConnectionAccess connections = jdbcServices.getBootstrapJdbcConnectionAccess();
+        try {
+            Connection connection = connections.obtainConnection();
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet maxId = statement.executeQuery("select max(id) from " + table)) {
+                    if (maxId.next() && maxId.getLong(1) >= firstId) {
+                        return;
+                    }
+                }
+                statement.execute(jdbcServices.getDialect() instanceof MySQLDialect
+                        ? "alter table " + table + " auto_increment = " + firstId
+                        : "alter table " + table + " alter column id restart with " + firstId);
+            } finally {
+                connections.releaseConnection(connection);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not set the student id range on shard " + Shard.current(), ex);
+        }
+    }
+
+    private record OnlyTable(Table table) implements SchemaFilter, SchemaFilterProvider {
+
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table candidate) {
+            return candidate.getName().equalsIgnoreCase(table.getName());
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return false;
+        }
+
+        @Override
+        public SchemaFilter getCreateFilter() {
+            return this;
+        }
+
+        @Override
+        public SchemaFilter getDropFilter() {
+            return this;
+        }
+
+        @Override
+        public SchemaFilter getTruncatorFilter() {
+            return this;
+        }
+
+        @Override
+        public SchemaFilter getMigrateFilter() {
+            return this;
+        }
+
+        @Override
+        public SchemaFilter getValidateFilter() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.course_management_system.sharding;
+
+import com.example.course_management_system.exception.BadRequestException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Scatter/gather paging across shards. Every shard is asked for the first
+ * {@code (page + 1) * size} rows in the requested order, with the id as a
+ * tie-breaker, and those sorted runs are merged to cut out the requested
+ * page. The cost therefore grows with the page number, as it does for
+ * OFFSET on a single database, so pages ending past
+ * {@value #MAX_MERGED_ROWS} rows are refused.
+ * <p>
+ * Rows are compared in Java on the sort properties, so text columns merge in
+ * {@link String#compareTo} order; under a case-insensitive collation, values
+ * that differ only in case may interleave differently than on one database.
+ */
+public final class ShardedPages {
+
+    public static final int MAX_MERGED_ROWS = 10_000;
+
+    private static final String ID = "id";
+
+    private ShardedPages() {
+    }
+
+    /** What to ask each shard for so that merging the answers can produce the given page. */
+    public static Pageable perShard(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor(ID) == null) {
+            sort = sort.and(Sort.by(ID));
+        }
+        // In long, so that a huge page number cannot wrap around to a small request
+        long rows = (pageable.getPageNumber() + 1L) * pageable.getPageSize();
+        if (rows > MAX_MERGED_ROWS) {
+            throw new BadRequestException("Pages ending past row " + MAX_MERGED_ROWS
+                    + " cannot be listed across shards");
+        }
+        return PageRequest.of(0, (int) rows, sort);
+    }
+
+    public static <T> Page<T> mergePages(List<Page<T>> shardPages, Pageable pageable) {
+        long total = shardPages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(mergeSorted(shardPages, pageable), pageable, total);
+    }
+
+    public static <T> Slice<T> mergeSlices(List<Slice<T>> shardSlices, Pageable pageable) {
+        List<T> content = mergeSorted(shardSlices, pageable);
+        long fetched = shardSlices.stream().mapToLong(Slice::getNumberOfElements).sum();
+        boolean hasNext = shardSlices.stream().anyMatch(Slice::hasNext) || fetched > pageable.getOffset() + content.size();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static <T> List<T> mergeSorted(List<? extends Slice<T>> runs, Pageable pageable) {
+        Comparator<T> order = comparator(perShard(pageable).getSort());
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.value, b.value));
+        for (Slice<T> run : runs) {
+            Iterator<T> rows = run.getContent().iterator();
+            if (rows.hasNext()) {
+                heads.add(new Head<>(rows.next(), rows));
+            }
+        }
+        List<T> content = new ArrayList<>(pageable.getPageSize());
+        for (long position = 0; !heads.isEmpty() && content.size() < pageable.getPageSize(); position++) {
+            Head<T> head = heads.poll();
+            if (position >= pageable.getOffset()) {
+                content.add(head.value);
+            }
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return content;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> result = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Comparable> values = Comparator.nullsFirst(Comparator.naturalOrder());
+            Comparator<T> byProperty = Comparator.comparing(
+                    row -> (Comparable) new BeanWrapperImpl(row).getPropertyValue(order.getProperty()),
+                    order.isAscending() ? values : values.reversed());
+            result = result.thenComparing(byProperty);
+        }
+        return result;
+    }
+
+    private record Head<T>(T value, Iterator<T> rest) {
+    }
+}
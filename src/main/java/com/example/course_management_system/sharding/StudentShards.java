@@ -0,0 +1,104 @@
+package com.example.course_management_system.sharding;
+
+import com.example.course_management_system.datasource.Shard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Places students on database shards and runs student work on the right one.
+ * <p>
+ * Shard 0 is the home database, which also holds courses and everything
+ * else; the extra shards listed in {@code cms.sharding.urls} hold only
+ * students. A course's students all live on shard {@code courseId mod count},
+ * so a roster is always read from a single shard. Each shard hands out
+ * student ids from its own range starting at {@code shard << 40} (set up by
+ * {@link ShardSchema}), so a student id alone names the shard that holds it.
+ * <p>
+ * Work for the shard the caller is already on runs in place and joins the
+ * caller's transaction. Work for another shard runs in a new transaction on
+ * that shard, suspending the caller's. With no extra shards everything is
+ * home, so every call simply runs in place.
+ */
+@Component
+public class StudentShards {
+
+    private static final int ID_RANGE_BITS = 40;
+
+    private final int count;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public StudentShards(PlatformTransactionManager transactionManager,
+                         @Value("${cms.sharding.urls:}") String[] shardUrls) {
+        this.count = shardUrls.length + 1;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public int shardOf(Long courseId) {
+        return Math.floorMod(courseId, count);
+    }
+
+    /** The shard whose id range the student id falls in; unknown ranges resolve home, where the id is not found. */
+    public int shardOfStudent(Long studentId) {
+        long shard = studentId >>> ID_RANGE_BITS;
+        return shard < count ? (int) shard : Shard.HOME;
+    }
+
+    static long firstIdOf(int shard) {
+        return Math.max(1L, (long) shard << ID_RANGE_BITS);
+    }
+
+    public <T> T read(int shard, Supplier<T> work) {
+        return run(shard, readTransaction, work);
+    }
+
+    public <T> T write(int shard, Supplier<T> work) {
+        return run(shard, writeTransaction, work);
+    }
+
+    public void write(int shard, Runnable work) {
+        run(shard, writeTransaction, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Runs the read on every shard, returning the results in shard order. */
+    public <T> List<T> readAll(Supplier<T> work) {
+        List<T> results = new ArrayList<>(count);
+        for (int shard = Shard.HOME; shard < count; shard++) {
+            results.add(read(shard, work));
+        }
+        return results;
+    }
+
+    private <T> T run(int shard, TransactionTemplate transaction, Supplier<T> work) {
+        if (shard == Shard.current()) {
+            return work.get();
+        }
+        int previous = Shard.switchTo(shard);
+        try {
+            return transaction.execute(status -> work.get());
+        } finally {
+            Shard.switchTo(previous);
+        }
+    }
+}
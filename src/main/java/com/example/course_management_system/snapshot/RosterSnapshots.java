@@ -0,0 +1,360 @@
+package com.example.course_management_system.snapshot;
+
+import com.example.course_management_system.cache.SingleFlight;
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Ready-to-write JSON for course rosters.
+ * <p>
+ * Each cached course keeps one serialized fragment per student plus the
+ * assembled {@code CourseDTO} and {@code List<StudentDTO>} documents; like the
+ * course service, the {@code CourseDTO} embeds only the first
+ * {@link CourseDTO#STUDENT_PREVIEW_SIZE} students and a cursor to the rest. A
+ * student write re-serializes only that student and re-joins the fragments of
+ * the affected course; other courses are untouched. At most
+ * {@code cms.roster-snapshots.max-entries} courses are kept, evicting the
+ * least recently read one. Courses with more than
+ * {@code cms.roster-snapshots.max-students} students are not snapshotted: the
+ * load reads at most one student past that limit, and the course is then only
+ * remembered as too large, so its reads go to the limited queries of the
+ * services until a student leaves it.
+ * <p>
+ * The database is read outside the lock. Every change bumps a counter for its
+ * course, and a load or patch that sees the counter move while it was reading
+ * is not kept, so a snapshot never goes back to a state from before a
+ * committed write.
+ */
+@Component
+public class RosterSnapshots {
+
+    private static final int CHANGE_STRIPES = 64;
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final StudentShards studentShards;
+    private final ModelMapper modelMapper;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int maxStudents;
+    // Access order, so the eldest entry is the least recently read course
+    private final LinkedHashMap<Long, Roster> rosters = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<Long, Optional<Roster>> loads = new SingleFlight<>();
+    private final long[] changes = new long[CHANGE_STRIPES];
+
+    public RosterSnapshots(CourseRepository courseRepository, StudentRepository studentRepository,
+                           StudentShards studentShards, ModelMapper modelMapper, ObjectMapper objectMapper,
+                           @Value("${cms.roster-snapshots.enabled:true}") boolean enabled,
+                           @Value("${cms.roster-snapshots.max-entries:1000}") int maxEntries,
+                           @Value("${cms.roster-snapshots.max-students:1000}") int maxStudents) {
+        this.courseRepository = courseRepository;
+        this.studentRepository = studentRepository;
+        this.studentShards = studentShards;
+        this.modelMapper = modelMapper;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxStudents = maxStudents;
+    }
+
+    /** Serialized {@code CourseDTO}, or empty when snapshots are off, the course is too large or does not exist. */
+    public Optional<byte[]> findCourseJson(Long courseId) {
+        return roster(courseId).filter(roster -> !roster.isTooLarge()).map(Roster::getCourseJson);
+    }
+
+    /** Serialized {@code List<StudentDTO>}, or empty when snapshots are off, the course is too large or does not exist. */
+    public Optional<byte[]> findRosterJson(Long courseId) {
+        return roster(courseId).filter(roster -> !roster.isTooLarge()).map(Roster::getRosterJson);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getEntityType() == EntityChangeEvent.EntityType.COURSE) {
+            if (event.getChangeType() == EntityChangeEvent.ChangeType.DELETED) {
+                change(event.getCourseId());
+                remove(event.getCourseId());
+            } else if (event.getChangeType() == EntityChangeEvent.ChangeType.UPDATED) {
+                patch(event.getCourseId(), () -> courseRepository.findById(event.getCourseId()),
+                        (roster, course) -> course.map(found -> roster.rename(found.getName())).orElse(null));
+            }
+            return;
+        }
+        if (event.getPreviousCourseId() != null) {
+            patch(event.getPreviousCourseId(), Optional::empty, (roster, none) -> roster.without(event.getEntityId()));
+        }
+        if (event.getChangeType() == EntityChangeEvent.ChangeType.DELETED) {
+            patch(event.getCourseId(), Optional::empty, (roster, none) -> roster.without(event.getEntityId()));
+        } else {
+            int shard = studentShards.shardOfStudent(event.getEntityId());
+            patch(event.getCourseId(), () -> studentShards.read(shard, () -> studentRepository.findById(event.getEntityId())),
+                    (roster, student) -> student
+                            .map(found -> roster.with(found.getId(), serialize(found)))
+                            .orElseGet(() -> roster.without(event.getEntityId())));
+        }
+    }
+
+    public synchronized void clear() {
+        rosters.clear();
+    }
+
+    public synchronized int size() {
+        return rosters.size();
+    }
+
+    private Optional<Roster> roster(Long courseId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            Roster roster = rosters.get(courseId);
+            if (roster != null) {
+                return Optional.of(roster);
+            }
+        }
+        return loads.load(courseId, () -> load(courseId));
+    }
+
+    private Optional<Roster> load(Long courseId) {
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes[stripe(courseId)];
+        }
+        Optional<Course> course = courseRepository.findById(courseId);
+        if (course.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Student> found = studentShards.read(studentShards.shardOf(courseId),
+                () -> studentRepository.findRosterPage(courseId, 0L, Limit.of(maxStudents + 1)));
+        Roster roster;
+        if (found.size() > maxStudents) {
+            roster = new Roster(courseId);
+        } else {
+            TreeMap<Long, byte[]> students = new TreeMap<>();
+            for (Student student : found) {
+                students.put(student.getId(), serialize(student));
+            }
+            roster = new Roster(courseId, course.get().getName(), students);
+        }
+        synchronized (this) {
+            if (changes[stripe(courseId)] == changesBefore) {
+                rosters.put(courseId, roster);
+                evict();
+            }
+        }
+        return Optional.of(roster);
+    }
+
+    /**
+     * Reads what the change needs, then applies it to the course's snapshot.
+     * The snapshot is dropped instead when another change to the course came
+     * in meanwhile, as the two reads may be applied out of order.
+     */
+    private <T> void patch(Long courseId, Supplier<T> read, BiFunction<Roster, T, Roster> apply) {
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = change(courseId);
+            if (!rosters.containsKey(courseId)) {
+                return;
+            }
+        }
+        T value = read.get();
+        synchronized (this) {
+            Roster roster = rosters.get(courseId);
+            if (roster == null) {
+                return;
+            }
+            Roster patched = changes[stripe(courseId)] == changesBefore ? apply.apply(roster, value) : null;
+            if (patched == null) {
+                rosters.remove(courseId);
+            } else {
+                rosters.put(courseId, patched);
+            }
+        }
+    }
+
+    private synchronized long change(Long courseId) {
+        // A load that began before this change must not be joined or kept
+        loads.forget(courseId);
+        return ++changes[stripe(courseId)];
+    }
+
+    private synchronized void remove(Long courseId) {
+        rosters.remove(courseId);
+    }
+
+    private void evict() {
+        Iterator<Long> eldest = rosters.keySet().iterator();
+        while (rosters.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static int stripe(Long courseId) {
+        return (int) (courseId & (CHANGE_STRIPES - 1));
+    }
+
+    private byte[] serialize(Student student) {
+        return toJson(modelMapper.map(student, StudentDTO.class));
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] joinStudents(Collection<byte[]> students) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        boolean first = true;
+        for (byte[] student : students) {
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(student);
+            first = false;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private static byte[] joinCourse(Long courseId, byte[] nameJson, byte[] previewJson, Long nextStudentsCursor) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(previewJson.length + nameJson.length + 80);
+        out.writeBytes(("{\"id\":" + courseId + ",\"name\":").getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(nameJson);
+        out.writeBytes(",\"students\":".getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(previewJson);
+        out.writeBytes((",\"nextStudentsCursor\":" + nextStudentsCursor + "}").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    /**
+     * Immutable roster snapshot; every patch returns a new instance, or null
+     * when the snapshot has to be reloaded. A roster without students stands
+     * for a course that is too large to snapshot.
+     */
+    private final class Roster {
+
+        private final Long courseId;
+        private final String courseName;
+        private final TreeMap<Long, byte[]> students;
+        private final byte[] rosterJson;
+        private final byte[] courseJson;
+
+        Roster(Long courseId, String courseName, TreeMap<Long, byte[]> students) {
+            this.courseId = courseId;
+            this.courseName = courseName;
+            this.students = students;
+            this.rosterJson = joinStudents(students.values());
+            this.courseJson = courseJson();
+        }
+
+        Roster(Long courseId) {
+            this.courseId = courseId;
+            this.courseName = null;
+            this.students = null;
+            this.rosterJson = null;
+            this.courseJson = null;
+        }
+
+        private Roster(Roster base, String courseName, TreeMap<Long, byte[]> students) {
+            this.courseId = base.courseId;
+            this.courseName = courseName;
+            this.students = students;
+            this.rosterJson = students == base.students ? base.rosterJson : joinStudents(students.values());
+            this.courseJson = courseJson();
+        }
+
+        private byte[] courseJson() {
+            if (students.size() <= CourseDTO.STUDENT_PREVIEW_SIZE) {
+                return joinCourse(courseId, toJson(courseName), rosterJson, null);
+            }
+            List<byte[]> preview = new ArrayList<>(CourseDTO.STUDENT_PREVIEW_SIZE);
+            Long cursor = null;
+            for (Map.Entry<Long, byte[]> student : students.entrySet()) {
+                if (preview.size() == CourseDTO.STUDENT_PREVIEW_SIZE) {
+                    break;
+                }
+                preview.add(student.getValue());
+                cursor = student.getKey();
+            }
+            return joinCourse(courseId, toJson(courseName), joinStudents(preview), cursor);
+        }
+
+        boolean isTooLarge() {
+            return students == null;
+        }
+
+        byte[] getCourseJson() {
+            return courseJson;
+        }
+
+        byte[] getRosterJson() {
+            return rosterJson;
+        }
+
+        Roster with(Long studentId, byte[] studentJson) {
+            if (isTooLarge()) {
+                return this;
+            }
+            if (students.size() >= maxStudents && !students.containsKey(studentId)) {
+                return null;
+            }
+            TreeMap<Long, byte[]> copy = new TreeMap<>(students);
+            copy.put(studentId, studentJson);
+            return new Roster(this, courseName, copy);
+        }
+
+        Roster without(Long studentId) {
+            if (isTooLarge()) {
+                return null;
+            }
+            if (!students.containsKey(studentId)) {
+                return this;
+            }
+            TreeMap<Long, byte[]> copy = new TreeMap<>(students);
+            copy.remove(studentId);
+            return new Roster(this, courseName, copy);
+        }
+
+        Roster rename(String name) {
+            if (isTooLarge()) {
+                return this;
+            }
+            return new Roster(this, name, students);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.course_management_system.warmup;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Decides when repeated rounds of the same work have stopped getting faster:
+ * after at least {@code minRounds}, once the median of the last
+ * {@code window} rounds is no more than {@code tolerance} below the median
+ * of the {@code window} rounds before them. Medians keep single slow or fast
+ * rounds (GC pauses, a lucky scheduling) from deciding either way.
+ */
+class Settling {
+
+    private final int minRounds;
+    private final int window;
+    private final double tolerance;
+    private final Deque<Long> recent = new ArrayDeque<>();
+    private int rounds;
+    private boolean settled;
+
+    Settling(int minRounds, int window, double tolerance) {
+        this.minRounds = minRounds;
+        this.window = window;
+        this.tolerance = tolerance;
+    }
+
+    /** Records a round's duration and returns whether latency has settled. */
+    boolean record(long nanos) {
+        rounds++;
+        recent.addLast(nanos);
+        if (recent.size() > 2 * window) {
+            recent.removeFirst();
+        }
+        if (rounds >= minRounds && recent.size() == 2 * window) {
+            long[] durations = recent.stream().mapToLong(Long::longValue).toArray();
+            long previous = median(durations, 0);
+            long last = median(durations, window);
+            settled = last >= previous * (1 - tolerance);
+        }
+        return settled;
+    }
+
+    boolean isSettled() {
+        return settled;
+    }
+
+    int getRounds() {
+        return rounds;
+    }
+
+    private long median(long[] rounds, int from) {
+        long[] slice = Arrays.copyOfRange(rounds, from, from + window);
+        Arrays.sort(slice);
+        return slice[window / 2];
+    }
+}
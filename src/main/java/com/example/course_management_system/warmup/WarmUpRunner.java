@@ -0,0 +1,201 @@
+package com.example.course_management_system.warmup;
+
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.monitoring.PoolMetrics;
+import com.example.course_management_system.monitoring.SqlStatistics;
+import com.example.course_management_system.service.CourseService;
+import com.example.course_management_system.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the application up before it reports ready.
+ * <p>
+ * Spring Boot only switches readiness to {@code ACCEPTING_TRAFFIC} once the
+ * application runners have returned, so {@code /ready} answers 503 while this
+ * runs. Each round replays a read-only request mix against the application's
+ * own HTTP port: listings in page and slice mode, single and multi gets and
+ * rosters, in JSON and CBOR. That goes through the real filters, services,
+ * Hibernate queries, ModelMapper type maps and message converters, and fills
+ * the roster caches on the way. Create and edit bodies are parsed and mapped
+ * in process, so nothing is written.
+ * <p>
+ * Rounds repeat until their latency settles (see {@link Settling}) or
+ * {@code cms.warmup.max-duration} runs out. A failing warm-up is logged and
+ * never keeps the instance from becoming ready. The SQL and pool statistics
+ * are cleared afterwards so they only describe real traffic.
+ */
+@Slf4j
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final int SAMPLE_SIZE = 5;
+    private static final String STUDENT_JSON = "{\"name\":\"warm-up\",\"email\":\"warm-up@example.com\",\"courseId\":1}";
+    private static final String COURSE_JSON = "{\"name\":\"warm-up\"}";
+
+    private final ApplicationContext context;
+    private final CourseService courseService;
+    private final StudentService studentService;
+    private final ModelMapper modelMapper;
+    private final ObjectMapper objectMapper;
+    private final SqlStatistics sqlStatistics;
+    private final PoolMetrics poolMetrics;
+    private final boolean enabled;
+    private final Duration maxDuration;
+    private final int minRounds;
+    private final int windowRounds;
+    private final double tolerance;
+
+    public WarmUpRunner(ApplicationContext context, CourseService courseService, StudentService studentService,
+                        ModelMapper modelMapper, ObjectMapper objectMapper, SqlStatistics sqlStatistics,
+                        PoolMetrics poolMetrics,
+                        @Value("${cms.warmup.enabled:true}") boolean enabled,
+                        @Value("${cms.warmup.max-duration:60s}") Duration maxDuration,
+                        @Value("${cms.warmup.min-rounds:50}") int minRounds,
+                        @Value("${cms.warmup.window-rounds:10}") int windowRounds,
+                        @Value("${cms.warmup.tolerance:0.15}") double tolerance) {
+        this.context = context;
+        this.courseService = courseService;
+        this.studentService = studentService;
+        this.modelMapper = modelMapper;
+        this.objectMapper = objectMapper;
+        this.sqlStatistics = sqlStatistics;
+        this.poolMetrics = poolMetrics;
+        this.enabled = enabled;
+        this.maxDuration = maxDuration;
+        this.minRounds = minRounds;
+        this.windowRounds = windowRounds;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Mock web environments (tests) have no port to send requests to
+        if (!enabled || !(context instanceof WebServerApplicationContext web) || web.getWebServer().getPort() <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            warmUp(URI.create("http://localhost:" + web.getWebServer().getPort()), start);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Warm-up failed after {} ms, continuing cold: {}", millisSince(start), ex.toString());
+        } finally {
+            sqlStatistics.clear();
+            poolMetrics.clear();
+        }
+    }
+
+    private void warmUp(URI base, long start) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<HttpRequest> requests = requests(base);
+        Settling settling = new Settling(minRounds, windowRounds, tolerance);
+        long deadline = start + maxDuration.toNanos();
+        long firstRound = -1;
+        long lastRound = -1;
+        while (System.nanoTime() < deadline) {
+            lastRound = round(client, requests);
+            if (firstRound < 0) {
+                firstRound = lastRound;
+            }
+            log.debug("Warm-up round {}: {} ms", settling.getRounds() + 1, lastRound / 1_000_000);
+            if (settling.record(lastRound)) {
+                break;
+            }
+        }
+        log.info("Warm-up: {} rounds of {} requests in {} ms, round latency {} ms -> {} ms{}",
+                settling.getRounds(), requests.size(), millisSince(start),
+                firstRound / 1_000_000, lastRound / 1_000_000,
+                settling.isSettled() ? "" : " (stopped by cms.warmup.max-duration before settling)");
+    }
+
+    private long round(HttpClient client, List<HttpRequest> requests) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        for (HttpRequest request : requests) {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException(request.uri().getPath() + " answered " + response.statusCode());
+            }
+        }
+        mapRequestBodies();
+        return System.nanoTime() - start;
+    }
+
+    /** The read path: sampled ids come from the first rows, so nothing is assumed about the data. */
+    private List<HttpRequest> requests(URI base) {
+        List<Long> courseIds = courseService.getCoursesSlice(0, SAMPLE_SIZE, "id", "asc")
+                .map(CourseDTO::getId).getContent();
+        List<Long> studentIds = studentService.getStudentsSlice(0, SAMPLE_SIZE, "id", "asc")
+                .map(StudentDTO::getId).getContent();
+        List<HttpRequest> requests = new ArrayList<>();
+        requests.add(get(base, "/courses/getall?size=20", MediaType.APPLICATION_JSON_VALUE));
+        requests.add(get(base, "/courses/getall?size=20&mode=slice&sortBy=name", MediaType.APPLICATION_JSON_VALUE));
+        requests.add(get(base, "/students/getall?size=20", MediaType.APPLICATION_JSON_VALUE));
+        requests.add(get(base, "/students/getall?size=20&mode=slice&sortBy=name&sortDir=desc",
+                MediaType.APPLICATION_JSON_VALUE));
+        for (Long id : courseIds) {
+            requests.add(get(base, "/courses/get/" + id, MediaType.APPLICATION_JSON_VALUE));
+            requests.add(get(base, "/courses/get/" + id, MediaType.APPLICATION_CBOR_VALUE));
+            requests.add(get(base, "/students/getcourse/" + id, MediaType.APPLICATION_JSON_VALUE));
+            requests.add(get(base, "/students/getcourse/" + id, MediaType.APPLICATION_CBOR_VALUE));
+        }
+        for (Long id : studentIds) {
+            requests.add(get(base, "/students/get/" + id, MediaType.APPLICATION_JSON_VALUE));
+        }
+        if (!courseIds.isEmpty()) {
+            requests.add(get(base, "/courses/get?ids=" + join(courseIds), MediaType.APPLICATION_JSON_VALUE));
+        }
+        if (!studentIds.isEmpty()) {
+            requests.add(get(base, "/students/get?ids=" + join(studentIds), MediaType.APPLICATION_JSON_VALUE));
+        }
+        return requests;
+    }
+
+    /** The write path up to the database: request bodies parsed and mapped to entities. */
+    private void mapRequestBodies() throws IOException {
+        StudentDTO student = objectMapper.readValue(STUDENT_JSON, StudentDTO.class);
+        modelMapper.map(modelMapper.map(student, Student.class), StudentDTO.class);
+        CourseDTO course = objectMapper.readValue(COURSE_JSON, CourseDTO.class);
+        modelMapper.map(modelMapper.map(course, Course.class), CourseDTO.class);
+    }
+
+    private static HttpRequest get(URI base, String path, String accept) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Accept", accept)
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+
+    private static String join(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -3,7 +3,7 @@ package com.example.course_management_system;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "cms.journal.enabled=false")
 class CourseManagementSystemApplicationTests {
 
     @Test
@@ -0,0 +1,99 @@
+package com.example.course_management_system.analytics;
+
+import com.example.course_management_system.dto.CourseAnalyticsDTO;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.repository.CourseCount;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.DomainCount;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseAnalyticsTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    private CourseAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+        analytics = new CourseAnalytics(courseRepository, studentRepository,
+                new StudentShards(null, new String[0]), 2, Duration.ofMinutes(10), clock);
+    }
+
+    @Test
+    void refresh_ShouldAggregateRosterSizesAndDomains() {
+        // Arrange
+        when(courseRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(studentRepository.countByCourse()).thenReturn(List.of(
+                new CourseCount(1L, 120L), new CourseCount(2L, 5L), new CourseCount(3L, 120L)));
+        when(studentRepository.countByEmailDomain()).thenReturn(List.of(
+                new DomainCount("b.edu", 45L), new DomainCount("a.edu", 200L)));
+        when(courseRepository.findAllById(anyIterable())).thenReturn(List.of(
+                course(1L, "Math"), course(3L, "Physics"), course(4L, "Art")));
+        // Act
+        analytics.refresh();
+        // Assert
+        CourseAnalyticsDTO result = analytics.getCurrent();
+        assertEquals(4, result.getCourses());
+        assertEquals(245, result.getStudents());
+        assertEquals(61.25, result.getAverageStudentsPerCourse());
+        assertEquals(5, result.getMedianStudentsPerCourse());
+        assertEquals(120, result.getMaxStudentsPerCourse());
+        assertEquals(List.of(1L, 1L, 0L, 0L, 2L, 0L, 0L),
+                result.getEnrollmentDistribution().stream().map(CourseAnalyticsDTO.EnrollmentBucket::getCourses).toList());
+        assertEquals(List.of("Math", "Physics"),
+                result.getLargestCourses().stream().map(CourseAnalyticsDTO.CourseSize::getName).toList());
+        assertEquals(1, result.getEmptyCourseCount());
+        assertEquals("Art", result.getEmptyCourses().get(0).getName());
+        assertEquals("a.edu", result.getEmailDomains().get(0).getDomain());
+    }
+    @Test
+    void refreshIfStale_WithoutChanges_ShouldNotRecompute() {
+        // Arrange
+        when(courseRepository.findAllIds()).thenReturn(List.of());
+        analytics.refreshIfStale();
+        // Act
+        analytics.refreshIfStale();
+        analytics.onChange(EntityChangeEvent.student(ChangeType.CREATED, 1L, 1L));
+        analytics.refreshIfStale();
+        // Assert
+        verify(courseRepository, times(2)).findAllIds();
+    }
+    @Test
+    void refresh_WhenQueryFails_ShouldKeepPreviousFiguresAndRetry() {
+        // Arrange
+        when(courseRepository.findAllIds()).thenReturn(List.of()).thenThrow(new IllegalStateException("down"));
+        analytics.refresh();
+        CourseAnalyticsDTO previous = analytics.getCurrent();
+        // Act
+        analytics.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        analytics.refreshIfStale();
+        // Assert
+        assertSame(previous, analytics.getCurrent());
+        analytics.refreshIfStale();
+        verify(courseRepository, times(3)).findAllIds();
+    }
+
+    private static Course course(Long id, String name) {
+        return Course.builder().id(id).name(name).build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.course_management_system.benchmark;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.journal.ChangeJournal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cost of journaling a change as seen by the request thread, and the rate the
+ * writer thread sustains, for 1 to 16 appending threads. Segments are 64 MB so
+ * the run also covers rotation. Not a unit test; run it with
+ * {@code scripts/benchmark.sh JournalAppendBenchmark}.
+ */
+public class JournalAppendBenchmark {
+
+    private static final int APPENDS_PER_THREAD = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-8s %14s %16s %8s %9s%n", "threads", "append(ns)", "writer(rec/s)", "stalled", "segments");
+        run(4, false);
+        for (int threads : new int[] {1, 4, 16}) {
+            run(threads, true);
+        }
+    }
+
+    private static void run(int threads, boolean report) throws Exception {
+        Path directory = Files.createTempDirectory("journal-benchmark");
+        try {
+            ChangeJournal journal = new ChangeJournal(true, directory, DataSize.ofMegabytes(64), 8192,
+                    Duration.ofSeconds(1));
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<Long>> callerNanos = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int thread = 0; thread < threads; thread++) {
+                long base = thread * (long) APPENDS_PER_THREAD;
+                callerNanos.add(executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    for (long i = 1; i <= APPENDS_PER_THREAD; i++) {
+                        journal.onChange(EntityChangeEvent.studentMoved(base + i, i % 500, (i + 1) % 500));
+                    }
+                    return System.nanoTime() - begin;
+                }));
+            }
+            long callerTotal = 0;
+            for (Future<Long> nanos : callerNanos) {
+                callerTotal += nanos.get();
+            }
+            executor.shutdown();
+            journal.close();
+            long elapsed = System.nanoTime() - start;
+            Map<String, Object> statistics = journal.getStatistics();
+            long records = (long) statistics.get("written");
+            if (report) {
+                System.out.printf("%-8d %14.0f %16.0f %8d %9d%n", threads,
+                        (double) callerTotal / (threads * (long) APPENDS_PER_THREAD), records / (elapsed / 1e9),
+                        (long) statistics.get("stalled"), statistics.get("segments"));
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.course_management_system.benchmark;
+
+import com.example.course_management_system.CourseManagementSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time to store a course with its roster over HTTP: POST /courses/create
+ * followed by one POST /students/create per student, against a single nested
+ * POST /courses/create carrying the whole roster. Runs the application on an in-memory H2 database, so the database
+ * round trips are cheap and a networked database widens the gap. Not a unit
+ * test; run it with {@code scripts/benchmark.sh NestedCreateBenchmark}.
+ */
+public class NestedCreateBenchmark {
+
+    private static final int[] ROSTER_SIZES = {10, 100, 1000};
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 7;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private static final AtomicLong names = new AtomicLong();
+    private static HttpClient client;
+    private static String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        // Command line arguments, so they override application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CourseManagementSystemApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:nested-create-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--logging.level.root=WARN",
+                        "--cms.warmup.enabled=false",
+                        "--cms.journal.enabled=false")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            client = HttpClient.newHttpClient();
+            System.out.printf("%-8s %16s %14s %8s%n", "students", "per-student(ms)", "nested(ms)", "speedup");
+            for (int students : ROSTER_SIZES) {
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    perStudent(students);
+                    nested(students);
+                }
+                double perStudent = median(() -> perStudent(students));
+                double nested = median(() -> nested(students));
+                System.out.printf("%-8d %16.1f %14.1f %7.1fx%n", students, perStudent, nested, perStudent / nested);
+            }
+        }
+    }
+
+    private static void perStudent(int students) throws Exception {
+        String courseId = id(post("/courses/create", "{\"name\":\"course" + names.incrementAndGet() + "\"}"));
+        for (int i = 0; i < students; i++) {
+            post("/students/create", student(names.incrementAndGet(), courseId));
+        }
+    }
+
+    private static void nested(int students) throws Exception {
+        StringBuilder body = new StringBuilder("{\"name\":\"course").append(names.incrementAndGet())
+                .append("\",\"students\":[");
+        for (int i = 0; i < students; i++) {
+            body.append(i == 0 ? "" : ",").append(student(names.incrementAndGet(), null));
+        }
+        post("/courses/create", body.append("]}").toString());
+    }
+
+    private static String student(long n, String courseId) {
+        return "{\"name\":\"Student " + n + "\",\"email\":\"student" + n + "@example.com\""
+                + (courseId != null ? ",\"courseId\":" + courseId : "") + "}";
+    }
+
+    private static String post(String path, String json) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException(path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static String id(String json) {
+        Matcher matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in " + json);
+        }
+        return matcher.group(1);
+    }
+
+    private static double median(Work work) throws Exception {
+        double[] rounds = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            work.run();
+            rounds[round] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(rounds);
+        return rounds[ROUNDS / 2];
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.course_management_system.benchmark;
+
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares JSON and CBOR for a course with a 1,000-student roster: payload
+ * size (raw and gzipped) and the time to encode and decode it. Not a unit
+ * test; run it with {@code scripts/benchmark.sh RosterCodecBenchmark}.
+ */
+public class RosterCodecBenchmark {
+
+    private static final int STUDENTS = 1000;
+    private static final int WARMUP_ITERATIONS = 3000;
+    private static final int ROUNDS = 7;
+    private static final int ITERATIONS_PER_ROUND = 1000;
+
+    public static void main(String[] args) throws Exception {
+        CourseDTO course = roster();
+        System.out.printf("%-5s %10s %10s %12s %12s%n", "codec", "bytes", "gzip", "encode(us)", "decode(us)");
+        report("json", Jackson2ObjectMapperBuilder.json().build(), course);
+        report("cbor", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build(), course);
+    }
+
+    private static void report(String codec, ObjectMapper mapper, CourseDTO course) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(course);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(course), CourseDTO.class);
+        }
+        double encodeMicros = median(() -> mapper.writeValueAsBytes(course));
+        double decodeMicros = median(() -> mapper.readValue(encoded, CourseDTO.class));
+        System.out.printf("%-5s %10d %10d %12.1f %12.1f%n", codec, encoded.length, gzip(encoded).length,
+                encodeMicros, decodeMicros);
+    }
+
+    private static double median(Work work) throws Exception {
+        double[] rounds = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS_PER_ROUND; i++) {
+                work.run();
+            }
+            rounds[round] = (System.nanoTime() - start) / 1000.0 / ITERATIONS_PER_ROUND;
+        }
+        Arrays.sort(rounds);
+        return rounds[ROUNDS / 2];
+    }
+
+    private static CourseDTO roster() {
+        List<StudentDTO> students = new ArrayList<>(STUDENTS);
+        for (long id = 1; id <= STUDENTS; id++) {
+            students.add(new StudentDTO(id, "Student " + id, "student" + id + "@example.com", 1L));
+        }
+        return new CourseDTO(1L, "Distributed Systems", students, null);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.course_management_system.benchmark;
+
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.index.RosterIndex;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import com.example.course_management_system.repository.StudentRow;
+import org.springframework.data.domain.Limit;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the retained heap of {@link RosterIndex} for one million students
+ * in 1,000 courses, next to the same rosters held as {@code StudentDTO}
+ * lists. Not a unit test; run it with
+ * {@code scripts/benchmark.sh RosterIndexFootprint}.
+ */
+public class RosterIndexFootprint {
+
+    private static final int STUDENTS = 1_000_000;
+    private static final int COURSES = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        StudentRepository studentRepository = mock(StudentRepository.class);
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        when(courseRepository.findAllIds()).thenReturn(LongStream.rangeClosed(1, COURSES).boxed().toList());
+        when(studentRepository.findRowsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.<Limit>getArgument(1).max();
+            List<StudentRow> rows = new ArrayList<>(limit);
+            for (long id = afterId + 1; id <= Math.min(afterId + limit, STUDENTS); id++) {
+                rows.add(row(id));
+            }
+            return rows;
+        });
+
+        long baseline = usedHeap();
+        RosterIndex rosterIndex = new RosterIndex(studentRepository, courseRepository,
+                new StudentShards(null, new String[0]), true);
+        rosterIndex.build();
+        long indexBytes = usedHeap() - baseline;
+
+        baseline = usedHeap();
+        Map<Long, List<StudentDTO>> dtoRosters = new HashMap<>();
+        for (long id = 1; id <= STUDENTS; id++) {
+            StudentRow row = row(id);
+            dtoRosters.computeIfAbsent(row.courseId(), courseId -> new ArrayList<>())
+                    .add(new StudentDTO(row.id(), row.name(), row.email(), row.courseId()));
+        }
+        long dtoBytes = usedHeap() - baseline;
+
+        System.out.printf("roster index    %6.1f MB  %5.1f bytes/student  (%d students)%n",
+                indexBytes / 1e6, (double) indexBytes / STUDENTS, rosterIndex.size());
+        System.out.printf("StudentDTO maps %6.1f MB  %5.1f bytes/student  (%d courses)%n",
+                dtoBytes / 1e6, (double) dtoBytes / STUDENTS, dtoRosters.size());
+    }
+
+    private static StudentRow row(long id) {
+        return new StudentRow(id, id % COURSES + 1, "Student " + id, "student" + id + "@example.com");
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
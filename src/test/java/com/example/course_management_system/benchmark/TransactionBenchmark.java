@@ -0,0 +1,154 @@
+package com.example.course_management_system.benchmark;
+
+import com.example.course_management_system.CourseManagementSystemApplication;
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.service.CourseService;
+import com.example.course_management_system.service.StudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What the service transaction boundaries save per call. Each read runs as
+ * the service declares it (read-only: no flush, no dirty-checking snapshots)
+ * and inside a surrounding read-write transaction, which is how it ran
+ * before. The student update runs as one service transaction and as its
+ * three repository calls, each committing on its own as they used to. Runs
+ * the service layer against an in-memory H2 database with the in-memory read
+ * paths switched off. Not a unit test; run it with
+ * {@code scripts/benchmark.sh TransactionBenchmark}.
+ */
+public class TransactionBenchmark {
+
+    private static final int ROSTER_SIZE = 500;
+    private static final int WARMUP_ITERATIONS = 1000;
+    private static final int ROUNDS = 7;
+    private static final int ITERATIONS_PER_ROUND = 100;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Statistics statistics;
+
+    public static void main(String[] args) throws Exception {
+        // Command line arguments, so they override application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CourseManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:transaction-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--logging.level.root=WARN",
+                        "--cms.roster-index.enabled=false",
+                        "--cms.roster-snapshots.enabled=false",
+                        "--cms.hot-pages.courses=",
+                        "--cms.hot-pages.students=",
+                        "--cms.invalidation.transport=none",
+                        "--cms.journal.enabled=false",
+                        "--cms.warmup.enabled=false",
+                        "--cms.archive.enabled=false")) {
+            CourseService courses = context.getBean(CourseService.class);
+            StudentService students = context.getBean(StudentService.class);
+            CourseRepository courseRepository = context.getBean(CourseRepository.class);
+            StudentRepository studentRepository = context.getBean(StudentRepository.class);
+            TransactionTemplate readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+            List<StudentDTO> roster = new ArrayList<>();
+            for (int i = 0; i < ROSTER_SIZE; i++) {
+                roster.add(StudentDTO.builder().name("Student " + i).email("student" + i + "@example.com").build());
+            }
+            CourseDTO course = courses.createCourse(CourseDTO.builder().name("Benchmark").students(roster).build());
+            Long courseId = course.getId();
+            Long studentId = course.getStudents().get(0).getId();
+
+            System.out.printf("%-34s %-11s %12s %10s %8s %8s%n",
+                    "call", "transaction", "alloc(KB)", "time(us)", "flushes", "commits");
+            compare("getStudentsByCourseId (" + ROSTER_SIZE + ")",
+                    () -> students.getStudentsByCourseId(courseId),
+                    () -> readWrite.execute(status -> students.getStudentsByCourseId(courseId)));
+            compare("getAllStudents (page of 100)",
+                    () -> students.getAllStudents(0, 100, "id", "asc"),
+                    () -> readWrite.execute(status -> students.getAllStudents(0, 100, "id", "asc")));
+            compare("getCourseById",
+                    () -> courses.getCourseById(courseId),
+                    () -> readWrite.execute(status -> courses.getCourseById(courseId)));
+            int[] names = {0};
+            compare("updateStudent", "service", () -> students.updateStudent(studentId, StudentDTO.builder()
+                            .name("Renamed " + names[0]++).email("student0@example.com").courseId(courseId).build()),
+                    "per call", () -> {
+                        Student student = studentRepository.findById(studentId).orElseThrow();
+                        Course target = courseRepository.findById(courseId).orElseThrow();
+                        student.setName("Renamed " + names[0]++);
+                        student.setCourse(target);
+                        studentRepository.save(student);
+                    });
+        }
+    }
+
+    private static void compare(String call, Runnable readOnly, Runnable readWrite) {
+        compare(call, "read-only", readOnly, "read-write", readWrite);
+    }
+
+    /** Warms both variants up, then alternates their rounds so drift in the JVM hits both alike. */
+    private static void compare(String call, String firstName, Runnable first, String secondName, Runnable second) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            first.run();
+            second.run();
+        }
+        Measurement firstMeasurement = new Measurement();
+        Measurement secondMeasurement = new Measurement();
+        for (int round = 0; round < ROUNDS; round++) {
+            firstMeasurement.round(round, first);
+            secondMeasurement.round(round, second);
+        }
+        firstMeasurement.print(call, firstName);
+        secondMeasurement.print(call, secondName);
+    }
+
+    private static final class Measurement {
+
+        private final double[] micros = new double[ROUNDS];
+        private long allocated;
+        private long flushes;
+        private long commits;
+
+        void round(int round, Runnable work) {
+            long flushesBefore = statistics.getFlushCount();
+            long commitsBefore = statistics.getSuccessfulTransactionCount();
+            long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS_PER_ROUND; i++) {
+                work.run();
+            }
+            micros[round] = (System.nanoTime() - start) / 1_000.0 / ITERATIONS_PER_ROUND;
+            allocated += THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            flushes += statistics.getFlushCount() - flushesBefore;
+            commits += statistics.getSuccessfulTransactionCount() - commitsBefore;
+        }
+
+        void print(String call, String transaction) {
+            double calls = ROUNDS * ITERATIONS_PER_ROUND;
+            double[] sorted = micros.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-34s %-11s %12.1f %10.1f %8.2f %8.2f%n", call, transaction,
+                    allocated / 1024.0 / calls, sorted[ROUNDS / 2], flushes / calls, commits / calls);
+        }
+    }
+}
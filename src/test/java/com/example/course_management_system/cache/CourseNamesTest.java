@@ -0,0 +1,66 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import org.junit.jupiter.api.Test;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseNamesTest {
+
+    private final CourseNames courseNames = new CourseNames(2);
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    void deletedEvent_ShouldForgetEverySpellingOfTheCourse() {
+        // Arrange
+        courseNames.find("Math", () -> lookup(1L));
+        courseNames.find("MATH", () -> lookup(1L));
+        // Act
+        courseNames.onChange(EntityChangeEvent.course(ChangeType.DELETED, 1L));
+        // Assert
+        assertEquals(0, courseNames.size());
+    }
+    @Test
+    void nameTakenOverByAnotherCourse_ShouldSurviveForgettingTheFirst() {
+        // Arrange
+        courseNames.find("Math", () -> lookup(1L));
+        courseNames.find("MATH", () -> lookup(1L));
+        courseNames.put("Math", 2L);
+        // Act
+        courseNames.forget(1L);
+        // Assert
+        assertEquals(Optional.of(2L), courseNames.find("Math", () -> lookup(3L)));
+        assertEquals(2, lookups.get());
+        assertEquals(1, courseNames.size());
+    }
+    @Test
+    void changeCommittedDuringLookup_ShouldNotRecordResult() {
+        // Act
+        courseNames.find("Math", () -> {
+            courseNames.forget(1L);
+            return lookup(1L);
+        });
+        // Assert
+        assertEquals(0, courseNames.size());
+    }
+    @Test
+    void whenFull_ShouldResolveWithoutCaching() {
+        // Arrange
+        courseNames.put("Math", 1L);
+        courseNames.put("Art", 2L);
+        // Act
+        courseNames.find("Music", () -> lookup(3L));
+        Optional<Long> found = courseNames.find("Music", () -> lookup(3L));
+        // Assert
+        assertEquals(Optional.of(3L), found);
+        assertEquals(2, lookups.get());
+        assertEquals(2, courseNames.size());
+    }
+
+    private Optional<Long> lookup(Long id) {
+        lookups.incrementAndGet();
+        return Optional.of(id);
+    }
+}
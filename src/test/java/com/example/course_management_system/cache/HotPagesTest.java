@@ -0,0 +1,117 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.cache.HotPages.Listing;
+import com.example.course_management_system.cache.HotPages.Shape;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.transaction.support.TransactionOperations;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotPagesTest {
+
+    private static final Shape FIRST_PAGE = new Shape(0, 10, "id", "asc");
+
+    private final TestClock clock = new TestClock();
+    private final HotPages hotPages = new HotPages(TransactionOperations.withoutTransaction(),
+            List.of("0:10:id:asc", "1:10:id:asc"), List.of("0:10:id:asc"),
+            Duration.ofSeconds(30), Duration.ofSeconds(10), clock);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void hotShape_ShouldBeLoadedOnce() {
+        // Act
+        hotPages.get(Listing.COURSES, FIRST_PAGE, this::load);
+        Page<String> page = hotPages.get(Listing.COURSES, new Shape(0, 10, "id", "ASC"), this::load);
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(List.of("load 1"), page.getContent());
+    }
+    @Test
+    void otherShape_ShouldBeLoadedEveryTime() {
+        // Act
+        hotPages.get(Listing.COURSES, new Shape(0, 20, "id", "asc"), this::load);
+        hotPages.get(Listing.COURSES, new Shape(0, 20, "id", "asc"), this::load);
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0, hotPages.size());
+    }
+    @Test
+    void refresh_ShouldReloadBeforeExpiry() {
+        // Arrange
+        hotPages.get(Listing.COURSES, FIRST_PAGE, this::load);
+        clock.advance(Duration.ofSeconds(15));
+        hotPages.refresh();
+        assertEquals(1, loads.get());
+        // Act
+        clock.advance(Duration.ofSeconds(6));
+        hotPages.refresh();
+        clock.advance(Duration.ofSeconds(15));
+        Page<String> page = hotPages.get(Listing.COURSES, FIRST_PAGE, this::load);
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(List.of("load 2"), page.getContent());
+    }
+    @Test
+    void change_ShouldDropAffectedListingsAndRefreshReloadsThem() {
+        // Arrange
+        hotPages.get(Listing.COURSES, FIRST_PAGE, this::load);
+        hotPages.get(Listing.STUDENTS, FIRST_PAGE, this::load);
+        // Act
+        hotPages.onChange(EntityChangeEvent.course(ChangeType.UPDATED, 1L));
+        // Assert
+        assertEquals(1, hotPages.size());
+        hotPages.get(Listing.STUDENTS, FIRST_PAGE, this::load);
+        assertEquals(2, loads.get());
+        hotPages.refresh();
+        assertEquals(3, loads.get());
+        assertEquals(List.of("load 3"), hotPages.get(Listing.COURSES, FIRST_PAGE, this::load).getContent());
+    }
+    @Test
+    void changeCommittedDuringLoad_ShouldNotKeepPage() {
+        // Act
+        hotPages.get(Listing.STUDENTS, FIRST_PAGE, () -> {
+            hotPages.onChange(EntityChangeEvent.student(ChangeType.CREATED, 1L, 7L));
+            return load();
+        });
+        // Assert
+        assertEquals(0, hotPages.size());
+    }
+
+    private Page<String> load() {
+        return new PageImpl<>(List.of("load " + loads.incrementAndGet()));
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
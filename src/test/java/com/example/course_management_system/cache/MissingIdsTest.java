@@ -0,0 +1,107 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissingIdsTest {
+
+    private final TestClock clock = new TestClock();
+    private final MissingIds missingIds = new MissingIds(2, Duration.ofSeconds(30), clock);
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    void repeatedMiss_ShouldSkipLookupUntilExpired() {
+        // Act
+        missingIds.find(EntityType.STUDENT, 1L, this::emptyLookup);
+        missingIds.find(EntityType.STUDENT, 1L, this::emptyLookup);
+        clock.advance(Duration.ofSeconds(31));
+        missingIds.find(EntityType.STUDENT, 1L, this::emptyLookup);
+        // Assert
+        assertEquals(2, lookups.get());
+    }
+    @Test
+    void sameIdOfOtherType_ShouldStillBeLookedUp() {
+        // Act
+        missingIds.find(EntityType.STUDENT, 1L, this::emptyLookup);
+        missingIds.find(EntityType.COURSE, 1L, this::emptyLookup);
+        // Assert
+        assertEquals(2, lookups.get());
+        assertTrue(missingIds.isMissing(EntityType.COURSE, 1L));
+    }
+    @Test
+    void createdEvent_ShouldForgetId() {
+        // Arrange
+        missingIds.find(EntityType.COURSE, 1L, this::emptyLookup);
+        // Act
+        missingIds.onChange(EntityChangeEvent.course(EntityChangeEvent.ChangeType.CREATED, 1L));
+        // Assert
+        assertFalse(missingIds.isMissing(EntityType.COURSE, 1L));
+    }
+    @Test
+    void createCommittedDuringLookup_ShouldNotRecordMiss() {
+        // Act
+        missingIds.find(EntityType.STUDENT, 1L, () -> {
+            missingIds.onChange(EntityChangeEvent.student(EntityChangeEvent.ChangeType.CREATED, 1L, 7L));
+            return Optional.empty();
+        });
+        // Assert
+        assertFalse(missingIds.isMissing(EntityType.STUDENT, 1L));
+    }
+    @Test
+    void whenFull_ShouldEvictOldestEntry() {
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            missingIds.find(EntityType.STUDENT, id, this::emptyLookup);
+        }
+        // Assert
+        assertEquals(2, missingIds.size());
+        assertFalse(missingIds.isMissing(EntityType.STUDENT, 1L));
+        assertTrue(missingIds.isMissing(EntityType.STUDENT, 3L));
+    }
+    @Test
+    void foundRow_ShouldNotBeRecorded() {
+        // Act
+        Optional<String> found = missingIds.find(EntityType.STUDENT, 1L, () -> Optional.of("samira"));
+        // Assert
+        assertEquals(Optional.of("samira"), found);
+        assertEquals(0, missingIds.size());
+    }
+
+    private Optional<String> emptyLookup() {
+        lookups.incrementAndGet();
+        return Optional.empty();
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
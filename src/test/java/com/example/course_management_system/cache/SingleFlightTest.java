@@ -0,0 +1,73 @@
+package com.example.course_management_system.cache;
+
+import com.example.course_management_system.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentLoadsOfSameKey_ShouldRunLoaderOnce() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        // Act
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.load(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "Math";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("Math", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+    @Test
+    void sequentialLoads_ShouldNotReuseCompletedResult() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        // Act
+        singleFlight.load(1L, () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.load(1L, () -> "v" + loads.incrementAndGet());
+        // Assert
+        assertEquals("v2", second);
+        assertEquals(2, loads.get());
+    }
+    @Test
+    void whenLoaderFails_ShouldPropagateOriginalException() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () ->
+                singleFlight.load(2L, () -> {
+                    throw new ResourceNotFoundException("Course not found with id: 2");
+                }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
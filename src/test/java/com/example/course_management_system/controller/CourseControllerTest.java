@@ -1,9 +1,15 @@
 package com.example.course_management_system.controller;
 
+import com.example.course_management_system.dto.CourseAnalyticsDTO;
 import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.CourseDeletionJobDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.exception.BadRequestException;
 import com.example.course_management_system.exception.ResourceNotFoundException;
 import com.example.course_management_system.service.CourseService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,6 +18,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -55,6 +63,105 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$.name").value("Math"));
     }
     @Test
+    void getAnalytics_ShouldReturnPrecomputedFigures() throws Exception {
+        // Arrange
+        CourseAnalyticsDTO analytics = CourseAnalyticsDTO.builder().courses(3).students(40).build();
+        given(courseService.getAnalytics()).willReturn(Optional.of(analytics));
+        // Act & Assert
+        mockMvc.perform(get("/courses/analytics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses").value(3))
+                .andExpect(jsonPath("$.students").value(40));
+    }
+    @Test
+    void getAnalytics_BeforeFirstRefresh_ShouldAskToRetry() throws Exception {
+        // Arrange
+        given(courseService.getAnalytics()).willReturn(Optional.empty());
+        // Act & Assert
+        mockMvc.perform(get("/courses/analytics"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+    @Test
+    void getCourseStudents_ShouldReturnPageAndNextCursor() throws Exception {
+        // Arrange
+        RosterPageDTO page = new RosterPageDTO(List.of(StudentDTO.builder().id(201L).build()), 201L);
+        given(courseService.getCourseStudents(1L, 200L, 1)).willReturn(page);
+        // Act & Assert
+        mockMvc.perform(get("/courses/get/{id}/students", 1L).param("after", "200").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students[0].id").value(201L))
+                .andExpect(jsonPath("$.nextCursor").value(201L));
+    }
+    @Test
+    void getCourseByName_ShouldReturnCourse() throws Exception {
+        // Arrange
+        given(courseService.getCourseIdByName("Math")).willReturn(1L);
+        given(courseService.findCourseSnapshot(1L)).willReturn(Optional.empty());
+        given(courseService.getCourseById(1L)).willReturn(courseDTO);
+        // Act & Assert
+        mockMvc.perform(get("/courses/by-name/{name}", "Math"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+    @Test
+    void getCourseByName_WhenNotFound_ShouldReturn404() throws Exception {
+        // Arrange
+        given(courseService.getCourseIdByName("Art"))
+                .willThrow(new ResourceNotFoundException("Course not found with name: Art"));
+        // Act & Assert
+        mockMvc.perform(get("/courses/by-name/{name}", "Art"))
+                .andExpect(status().isNotFound());
+    }
+    @Test
+    void getAllCourses_InSliceMode_ShouldSkipCountAndReturnApproximateTotal() throws Exception {
+        // Arrange
+        Slice<CourseDTO> slice = new SliceImpl<>(List.of(courseDTO), PageRequest.of(0, 10), true);
+        given(courseService.getCoursesSlice(0, 10, "id", "asc")).willReturn(slice);
+        given(courseService.getApproximateCourseCount()).willReturn(42L);
+        // Act & Assert
+        mockMvc.perform(get("/courses/getall").param("mode", "slice"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count-Approximate", "42"))
+                .andExpect(jsonPath("$.content[0].name").value("Math"))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        verify(courseService, never()).getAllCourses(anyInt(), anyInt(), anyString(), anyString());
+    }
+    @Test
+    void getCourseById_WithSnapshot_ShouldWriteSnapshotBytes() throws Exception {
+        // Arrange
+        byte[] snapshot = "{\"id\":1,\"name\":\"Math\",\"students\":[]}".getBytes();
+        given(courseService.findCourseSnapshot(1L)).willReturn(Optional.of(snapshot));
+        // Act & Assert
+        mockMvc.perform(get("/courses/get/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("Math"));
+        verify(courseService, never()).getCourseById(anyLong());
+    }
+    @Test
+    void getCourseById_WithCborAccept_ShouldSkipSnapshotAndEncodeCbor() throws Exception {
+        // Arrange
+        given(courseService.getCourseById(1L)).willReturn(courseDTO);
+        // Act & Assert
+        byte[] body = mockMvc.perform(get("/courses/get/{id}", 1L).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("Math", new CBORMapper().readValue(body, CourseDTO.class).getName());
+        verify(courseService, never()).findCourseSnapshot(anyLong());
+    }
+    @Test
+    void getCoursesByIds_WhenTooManyIds_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        given(courseService.getCoursesByIds(anyList()))
+                .willThrow(new BadRequestException("At most 1000 ids can be requested at once"));
+        // Act & Assert
+        mockMvc.perform(get("/courses/get").param("ids", "1,2"))
+                .andExpect(status().isBadRequest());
+    }
+    @Test
     void getCourseById_WhenNotFound_ShouldReturn404() throws Exception {
         // Arrange
         given(courseService.getCourseById(2L))
@@ -106,6 +213,26 @@ class CourseControllerTest {
                 .andExpect(content().string("Course not found"));
     }
     @Test
+    void patchCourse_ShouldPassOnlyGivenFields() throws Exception {
+        // Arrange
+        given(courseService.patchCourse(eq(1L), any(CourseDTO.class))).willReturn(CourseDTO.builder().name("Algebra").build());
+        // Act & Assert
+        mockMvc.perform(patch("/courses/edit/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"x\"}"))
+                .andExpect(status().isOk());
+        verify(courseService).patchCourse(eq(1L), argThat(patch -> patch.getId() == null && "x".equals(patch.getName())));
+    }
+    @Test
+    void deactivateCourse_ShouldReturnNoContent() throws Exception {
+        // Arrange
+        willDoNothing().given(courseService).setCourseActive(1L, false);
+        // Act & Assert
+        mockMvc.perform(post("/courses/deactivate/{id}", 1L))
+                .andExpect(status().isNoContent());
+        verify(courseService).setCourseActive(1L, false);
+    }
+    @Test
     void deleteCourse_ShouldReturnNoContent() throws Exception {
         // Arrange
         willDoNothing().given(courseService).deleteCourse(1L);
@@ -115,6 +242,28 @@ class CourseControllerTest {
                 .andExpect(content().string("Course deleted"));
     }
     @Test
+    void deleteCourse_InAsyncMode_ShouldReturnAcceptedJob() throws Exception {
+        // Arrange
+        CourseDeletionJobDTO job = CourseDeletionJobDTO.builder().id(7L).courseId(1L).status("PENDING").build();
+        given(courseService.startCourseDeletion(1L)).willReturn(job);
+        // Act & Assert
+        mockMvc.perform(delete("/courses/del/{id}", 1L).param("mode", "async"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/courses/deletions/7"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        verify(courseService, never()).deleteCourse(anyLong());
+    }
+    @Test
+    void getCourseDeletionJob_ShouldReturnProgress() throws Exception {
+        // Arrange
+        given(courseService.getCourseDeletionJob(7L)).willReturn(
+                CourseDeletionJobDTO.builder().id(7L).courseId(1L).status("RUNNING").studentsDeleted(1500).build());
+        // Act & Assert
+        mockMvc.perform(get("/courses/deletions/{jobId}", 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentsDeleted").value(1500));
+    }
+    @Test
     void deleteCourseById_whenNotFound_shouldReturn404() throws Exception {
         //arrange
         willThrow(new ResourceNotFoundException("Course not found with id: 2"))
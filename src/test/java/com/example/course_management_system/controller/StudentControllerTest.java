@@ -1,9 +1,12 @@
 package com.example.course_management_system.controller;
 
+import com.example.course_management_system.dto.BatchResult;
 import com.example.course_management_system.dto.StudentDTO;
 import com.example.course_management_system.exception.ResourceNotFoundException;
 import com.example.course_management_system.service.StudentService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -76,6 +80,17 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.name").value("samira"));
     }
     @Test
+    void getStudentsByIds_ShouldReturnItemsAndMissingIds() throws Exception {
+        // Arrange
+        given(studentService.getStudentsByIds(List.of(1L, 7L)))
+                .willReturn(new BatchResult<>(List.of(studentDTO), List.of(7L)));
+        // Act & Assert
+        mockMvc.perform(get("/students/get").param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.missingIds[0]").value(7L));
+    }
+    @Test
     void getStudentById_WhenNotFound_ShouldReturn404() throws Exception {
         // Arrange
         given(studentService.getStudentById(2L))
@@ -97,6 +112,30 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$[0].courseId").value(1L));
     }
     @Test
+    void getStudentsByCourseId_WithCborAccept_ShouldSkipSnapshotAndEncodeCbor() throws Exception {
+        // Arrange
+        given(studentService.getStudentsByCourseId(1L)).willReturn(List.of(studentDTO));
+        // Act & Assert
+        byte[] body = mockMvc.perform(get("/students/getcourse/{courseId}", 1L).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode roster = new CBORMapper().readTree(body);
+        assertEquals("samira", roster.get(0).get("name").asText());
+        verify(studentService, never()).findRosterSnapshot(anyLong());
+    }
+    @Test
+    void getAllStudents_WithCborAccept_ShouldEncodePageAsCbor() throws Exception {
+        // Arrange
+        given(studentService.getAllStudents(0, 10, "id", "asc")).willReturn(new PageImpl<>(List.of(studentDTO)));
+        // Act & Assert
+        byte[] body = mockMvc.perform(get("/students/getall").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("samira", new CBORMapper().readTree(body).get("content").get(0).get("name").asText());
+    }
+    @Test
     void updateStudent_ShouldReturnUpdatedStudent() throws Exception {
         // Arrange
         given(studentService.updateStudent(eq(1L), any(StudentDTO.class))).willReturn(studentDTO);
@@ -109,6 +148,17 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.name").value("samira"));
     }
     @Test
+    void patchStudent_ShouldPassOnlyGivenFields() throws Exception {
+        // Arrange
+        given(studentService.patchStudent(eq(1L), any(StudentDTO.class))).willReturn(StudentDTO.builder().name("sara").build());
+        // Act & Assert
+        mockMvc.perform(patch("/students/edit/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"x\"}"))
+                .andExpect(status().isOk());
+        verify(studentService).patchStudent(eq(1L), argThat(patch -> patch.getId() == null && "x".equals(patch.getName())));
+    }
+    @Test
     void deleteStudent_ShouldReturnNoContent() throws Exception {
         // Arrange
         willDoNothing().given(studentService).deleteStudent(1L);
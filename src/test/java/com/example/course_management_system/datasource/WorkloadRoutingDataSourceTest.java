@@ -0,0 +1,62 @@
+package com.example.course_management_system.datasource;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkloadRoutingDataSourceTest {
+
+    private final DataSource interactive = mock(DataSource.class);
+    private final DataSource bulk = mock(DataSource.class);
+    private final Connection interactiveConnection = mock(Connection.class);
+    private final Connection bulkConnection = mock(Connection.class);
+    private WorkloadRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(interactive.getConnection()).thenReturn(interactiveConnection);
+        when(bulk.getConnection()).thenReturn(bulkConnection);
+        routingDataSource = new WorkloadRoutingDataSource(interactive, bulk);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @Test
+    void getConnection_ShouldUseInteractivePool_ByDefault() throws Exception {
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(interactiveConnection, connection);
+    }
+
+    @Test
+    void doFilter_ShouldRouteRequestToBulkPoolAndRestoreInteractive() throws Exception {
+        // Arrange
+        Connection[] seen = new Connection[1];
+        FilterChain chain = (request, response) -> {
+            try {
+                seen[0] = routingDataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        // Act
+        new BulkWorkloadFilter().doFilter(new MockHttpServletRequest("GET", "/students/getall"),
+                new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertSame(bulkConnection, seen[0]);
+        assertEquals(Workload.INTERACTIVE, Workload.current());
+        assertSame(interactiveConnection, routingDataSource.getConnection());
+    }
+}
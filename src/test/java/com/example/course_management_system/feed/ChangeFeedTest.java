@@ -0,0 +1,137 @@
+package com.example.course_management_system.feed;
+
+import com.example.course_management_system.controller.ChangeFeedController;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class ChangeFeedTest {
+
+    private static final Pattern EVENT_LINE = Pattern.compile("^(id|event):(.*)$", Pattern.MULTILINE);
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    private ChangeFeed feed;
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void subscriberAddedWhileDispatchIsQueued_ShouldGetEachEntryOnceInOrder() throws Exception {
+        // Arrange
+        feed(10);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.execute(() -> awaitQuietly(release));
+        feed.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        // Act
+        MockHttpServletResponse response = subscribe(null, 0L);
+        release.countDown();
+        feed.onChange(EntityChangeEvent.course(ChangeType.CREATED, 2L));
+        // Assert
+        assertEquals(List.of("id:1", "event:created", "id:2", "event:created"), awaitEvents(response, "id:2"));
+    }
+    @Test
+    void resume_ShouldReplayOnlyEntriesAfterLastEventId() throws Exception {
+        // Arrange
+        feed(10);
+        feed.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        feed.onChange(EntityChangeEvent.course(ChangeType.UPDATED, 1L));
+        feed.onChange(EntityChangeEvent.course(ChangeType.DELETED, 1L));
+        // Act
+        MockHttpServletResponse response = subscribe(null, 1L);
+        // Assert
+        assertEquals(List.of("id:2", "event:updated", "id:3", "event:deleted"), awaitEvents(response, "id:3"));
+    }
+    @Test
+    void courseFilter_ShouldOnlyDeliverChangesTouchingTheCourse() throws Exception {
+        // Arrange
+        feed(10);
+        MockHttpServletResponse response = subscribe(1L, null);
+        // Act
+        feed.onChange(EntityChangeEvent.student(ChangeType.CREATED, 10L, 2L));
+        feed.onChange(EntityChangeEvent.studentMoved(11L, 2L, 1L));
+        feed.onChange(EntityChangeEvent.student(ChangeType.DELETED, 12L, 1L));
+        // Assert
+        assertEquals(List.of("id:2", "event:updated", "id:3", "event:deleted"), awaitEvents(response, "id:3"));
+    }
+    @Test
+    void lastEventIdOlderThanBuffer_ShouldSendResetBeforeReplay() throws Exception {
+        // Arrange
+        feed(2);
+        for (long id = 1; id <= 4; id++) {
+            feed.onChange(EntityChangeEvent.course(ChangeType.CREATED, id));
+        }
+        // Act
+        MockHttpServletResponse response = subscribe(null, 1L);
+        // Assert
+        assertEquals(List.of("event:reset", "id:3", "event:created", "id:4", "event:created"),
+                awaitEvents(response, "id:4"));
+        assertTrue(response.getContentAsString().contains("data:buffer-overrun"));
+    }
+    @Test
+    void lastEventIdNeverIssued_ShouldSendReset() throws Exception {
+        // Arrange
+        feed(10);
+        feed.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        // Act
+        MockHttpServletResponse response = subscribe(null, 500L);
+        feed.onChange(EntityChangeEvent.course(ChangeType.CREATED, 2L));
+        // Assert
+        assertEquals(List.of("event:reset", "id:2", "event:created"), awaitEvents(response, "id:2"));
+        assertTrue(response.getContentAsString().contains("data:unknown-event-id"));
+    }
+
+    private void feed(int bufferSize) {
+        feed = new ChangeFeed(bufferSize, Duration.ofMinutes(1).toMillis(), dispatcher);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ChangeFeedController(feed)).build();
+    }
+
+    private MockHttpServletResponse subscribe(Long courseId, Long lastEventId) throws Exception {
+        var request = get("/changes/stream");
+        if (courseId != null) {
+            request.param("courseId", courseId.toString());
+        }
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    /** The id and event lines sent, once the line {@code last} has arrived. */
+    private static List<String> awaitEvents(MockHttpServletResponse response, String last) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!events(response).contains(last)) {
+            assertTrue(System.nanoTime() < deadline, last + " not sent within 5s: " + response.getContentAsString());
+            Thread.sleep(10);
+        }
+        return events(response);
+    }
+
+    private static List<String> events(MockHttpServletResponse response) throws Exception {
+        Matcher matcher = EVENT_LINE.matcher(response.getContentAsString());
+        return matcher.results().map(result -> result.group(1) + ":" + result.group(2)).toList();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.course_management_system.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(5), Clock.systemUTC());
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, 1000);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final HttpServlet createServlet = new HttpServlet() {
+        @Override
+        protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            String body = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+            response.setStatus(201);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":" + executions.incrementAndGet() + ",\"echo\":" + body + "}");
+        }
+    };
+
+    @Test
+    void retryWithSameKey_ShouldReplayStoredResponse() throws Exception {
+        // Act
+        MockHttpServletResponse first = post("key-1", "{\"name\":\"Math\"}");
+        MockHttpServletResponse retry = post("key-1", "{\"name\":\"Math\"}");
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+    @Test
+    void sameKeyWithDifferentBody_ShouldBeRejected() throws Exception {
+        // Act
+        post("key-2", "{\"name\":\"Math\"}");
+        MockHttpServletResponse conflicting = post("key-2", "{\"name\":\"Physics\"}");
+        // Assert
+        assertEquals(422, conflicting.getStatus());
+        assertEquals(1, executions.get());
+    }
+    @Test
+    void requestsWithoutKey_ShouldAlwaysRun() throws Exception {
+        // Act
+        post(null, "{\"name\":\"Math\"}");
+        post(null, "{\"name\":\"Math\"}");
+        // Assert
+        assertEquals(2, executions.get());
+        assertEquals(0, store.size());
+    }
+    @Test
+    void concurrentDuplicate_ShouldWaitForFirstRequestAndReplayIt() throws Exception {
+        // Arrange
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServlet slowServlet = new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                createServlet.service(request, response);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> post("key-3", "{\"name\":\"Math\"}", slowServlet));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            AtomicReference<Thread> duplicateThread = new AtomicReference<>();
+            Future<MockHttpServletResponse> duplicate = executor.submit(() -> {
+                duplicateThread.set(Thread.currentThread());
+                return post("key-3", "{\"name\":\"Math\"}", slowServlet);
+            });
+            // Act
+            awaitWaiting(duplicateThread);
+            release.countDown();
+            // Assert
+            MockHttpServletResponse firstResponse = first.get(5, TimeUnit.SECONDS);
+            MockHttpServletResponse duplicateResponse = duplicate.get(5, TimeUnit.SECONDS);
+            assertEquals(1, executions.get());
+            assertEquals(201, duplicateResponse.getStatus());
+            assertEquals(firstResponse.getContentAsString(), duplicateResponse.getContentAsString());
+            assertEquals("true", duplicateResponse.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertNull(firstResponse.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+    @Test
+    void readListener_ShouldBeToldTheBodyIsAvailable() throws Exception {
+        // Arrange
+        StringBuilder read = new StringBuilder();
+        HttpServlet asyncReader = new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                ServletInputStream input = request.getInputStream();
+                input.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        read.append(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        response.setStatus(201);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        response.setStatus(500);
+                    }
+                });
+            }
+        };
+        // Act
+        MockHttpServletResponse response = post("key-4", "{\"name\":\"Math\"}", asyncReader);
+        // Assert
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"name\":\"Math\"}", read.toString());
+    }
+
+    private MockHttpServletResponse post(String key, String body) throws Exception {
+        return post(key, body, createServlet);
+    }
+
+    private MockHttpServletResponse post(String key, String body, HttpServlet servlet) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/courses/create");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static void awaitWaiting(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "duplicate did not start waiting");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.course_management_system.idempotency;
+
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(2, Duration.ofMinutes(5), Clock.systemUTC());
+
+    @Test
+    void fullStore_ShouldEvictCompletedEntriesPastRunningOnes() {
+        // Arrange
+        store.claim("running", "POST /courses/create a");
+        store.claim("done", "POST /courses/create b");
+        store.complete("done", new StoredResponse(201, "application/json", new byte[0]));
+        // Act
+        store.claim("new", "POST /courses/create c");
+        // Assert
+        assertEquals(2, store.size());
+        assertEquals(IdempotencyStore.Status.DUPLICATE, store.claim("running", "POST /courses/create a").status());
+        assertEquals(IdempotencyStore.Status.CLAIMED, store.claim("done", "POST /courses/create b").status());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.course_management_system.index;
+
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import com.example.course_management_system.repository.StudentRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RosterIndexTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private StudentRepository studentRepository;
+
+    private RosterIndex rosterIndex;
+
+    @BeforeEach
+    void setUp() {
+        rosterIndex = new RosterIndex(studentRepository, courseRepository,
+                new StudentShards(null, new String[0]), true);
+    }
+
+    @Test
+    void build_ShouldServeRostersWithoutQueries() {
+        // Arrange
+        when(courseRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(studentRepository.findRowsAfter(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(row(1L, 1L, "samira"), row(2L, 1L, "sara")));
+        when(studentRepository.findRowsAfter(eq(2L), any(Limit.class))).thenReturn(List.of());
+        // Act
+        rosterIndex.build();
+        List<StudentDTO> roster = rosterIndex.findRoster(1L).orElseThrow();
+        // Assert
+        assertEquals(List.of("samira", "sara"), roster.stream().map(StudentDTO::getName).toList());
+        assertEquals("samira@gmail.com", roster.get(0).getEmail());
+        assertEquals(List.of(), rosterIndex.findRoster(2L).orElseThrow());
+        assertTrue(rosterIndex.findRoster(99L).isEmpty());
+        verify(studentRepository, never()).findByCourseId(any());
+    }
+    @Test
+    void studentMoved_ShouldUpdateBothRosters() {
+        // Arrange
+        when(courseRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(studentRepository.findRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(row(1L, 1L, "samira")));
+        when(studentRepository.findRowsAfter(eq(1L), any(Limit.class))).thenReturn(List.of());
+        rosterIndex.build();
+        when(studentRepository.findRowById(1L)).thenReturn(Optional.of(row(1L, 2L, "samira k")));
+        // Act
+        rosterIndex.onChange(EntityChangeEvent.studentMoved(1L, 2L, 1L));
+        // Assert
+        assertEquals(List.of(), rosterIndex.findRoster(1L).orElseThrow());
+        assertEquals("samira k", rosterIndex.findRoster(2L).orElseThrow().get(0).getName());
+    }
+    @Test
+    void courseCreatedWithRoster_ShouldReadRosterOnceAndSkipStudentLookups() {
+        // Arrange
+        when(courseRepository.findAllIds()).thenReturn(List.of());
+        when(studentRepository.findRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of());
+        rosterIndex.build();
+        when(studentRepository.findRowsByCourseId(3L))
+                .thenReturn(List.of(row(5L, 3L, "samira"), row(6L, 3L, "sara")));
+        // Act
+        rosterIndex.onChange(EntityChangeEvent.course(ChangeType.CREATED, 3L));
+        rosterIndex.onChange(EntityChangeEvent.student(ChangeType.CREATED, 5L, 3L));
+        rosterIndex.onChange(EntityChangeEvent.student(ChangeType.CREATED, 6L, 3L));
+        // Assert
+        assertEquals(List.of("samira", "sara"),
+                rosterIndex.findRoster(3L).orElseThrow().stream().map(StudentDTO::getName).toList());
+        verify(studentRepository, never()).findRowById(any());
+    }
+    @Test
+    void courseDeleted_ShouldDropRosterAndStudents() {
+        // Arrange
+        when(courseRepository.findAllIds()).thenReturn(List.of(1L));
+        when(studentRepository.findRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(row(1L, 1L, "samira")));
+        when(studentRepository.findRowsAfter(eq(1L), any(Limit.class))).thenReturn(List.of());
+        rosterIndex.build();
+        // Act
+        rosterIndex.onChange(EntityChangeEvent.course(ChangeType.DELETED, 1L));
+        // Assert
+        assertTrue(rosterIndex.findRoster(1L).isEmpty());
+        assertEquals(0, rosterIndex.size());
+    }
+    @Test
+    void studentDeleted_ShouldRemoveWithoutQuery() {
+        // Arrange
+        buildWith(row(1L, 1L, "samira"), row(2L, 1L, "sara"));
+        // Act
+        rosterIndex.onChange(EntityChangeEvent.student(ChangeType.DELETED, 1L, 1L));
+        // Assert
+        assertEquals(List.of("sara"), rosterIndex.findRoster(1L).orElseThrow().stream().map(StudentDTO::getName).toList());
+        verify(studentRepository, never()).findRowById(any());
+    }
+    @Test
+    void readFinishingAfterNewerChange_ShouldNotOverwriteIt() {
+        // Arrange
+        buildWith(row(1L, 1L, "samira"));
+        when(studentRepository.findRowById(1L)).thenAnswer(invocation -> {
+            // A later rename commits and is applied while this read is still running
+            rosterIndex.onChange(EntityChangeEvent.student(ChangeType.UPDATED, 1L, 1L));
+            return Optional.of(row(1L, 1L, "samira k"));
+        }).thenReturn(Optional.of(row(1L, 1L, "samira ketabi")));
+        // Act
+        rosterIndex.onChange(EntityChangeEvent.student(ChangeType.UPDATED, 1L, 1L));
+        // Assert
+        assertEquals("samira ketabi", rosterIndex.findRoster(1L).orElseThrow().get(0).getName());
+    }
+    @Test
+    void studentLeavingWhileCreatedRosterIsRead_ShouldRereadRoster() {
+        // Arrange
+        buildWith();
+        when(studentRepository.findRowsByCourseId(3L)).thenAnswer(invocation -> {
+            rosterIndex.onChange(EntityChangeEvent.student(ChangeType.DELETED, 6L, 3L));
+            return List.of(row(5L, 3L, "samira"), row(6L, 3L, "sara"));
+        }).thenReturn(List.of(row(5L, 3L, "samira")));
+        // Act
+        rosterIndex.onChange(EntityChangeEvent.course(ChangeType.CREATED, 3L));
+        // Assert
+        assertEquals(List.of("samira"), rosterIndex.findRoster(3L).orElseThrow().stream().map(StudentDTO::getName).toList());
+        assertEquals(1, rosterIndex.size());
+        verify(studentRepository, times(2)).findRowsByCourseId(3L);
+    }
+    @Test
+    void findRoster_BeforeBuild_ShouldFallBack() {
+        // Act & Assert
+        rosterIndex.onChange(EntityChangeEvent.student(ChangeType.CREATED, 1L, 1L));
+        assertTrue(rosterIndex.findRoster(1L).isEmpty());
+        verifyNoInteractions(studentRepository);
+    }
+    @Test
+    void recordStore_ShouldSurviveRemovalsAndGrowth() {
+        // Arrange
+        StudentRecordStore store = new StudentRecordStore(0);
+        for (long id = 1; id <= 10_000; id++) {
+            store.put(id, id % 7 + 1, "s" + id, id % 3 == 0 ? null : "s" + id + "@gmail.com");
+        }
+        // Act
+        for (long id = 1; id <= 10_000; id += 2) {
+            store.remove(id);
+        }
+        // Assert
+        assertEquals(5_000, store.size());
+        assertNull(store.get(9_999));
+        StudentDTO student = store.get(9_998);
+        assertEquals("s9998", student.getName());
+        assertEquals("s9998@gmail.com", student.getEmail());
+        assertEquals(9_998 % 7 + 1, student.getCourseId());
+        assertNull(store.get(9_996).getEmail());
+    }
+
+    private void buildWith(StudentRow... rows) {
+        when(courseRepository.findAllIds()).thenReturn(List.of(1L));
+        when(studentRepository.findRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(rows));
+        if (rows.length > 0) {
+            when(studentRepository.findRowsAfter(eq(rows[rows.length - 1].id()), any(Limit.class))).thenReturn(List.of());
+        }
+        rosterIndex.build();
+    }
+
+    private static StudentRow row(Long id, Long courseId, String name) {
+        return new StudentRow(id, courseId, name, name.split(" ")[0] + "@gmail.com");
+    }
+}
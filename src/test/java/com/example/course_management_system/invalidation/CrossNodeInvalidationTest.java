@@ -0,0 +1,139 @@
+package com.example.course_management_system.invalidation;
+
+import com.example.course_management_system.CourseManagementSystemApplication;
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.exception.ResourceNotFoundException;
+import com.example.course_management_system.service.CourseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application nodes in one JVM, sharing an in-memory database, check
+ * that each sees the other's writes despite its own caches.
+ */
+class CrossNodeInvalidationTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void renameOnOneNode_ShouldRefreshSnapshotAndNameLookupOnTheOther() {
+        // Arrange
+        CourseDTO course = courses(nodeA).createCourse(CourseDTO.builder().name("Networks").build());
+        assertTrue(snapshotOnB(course.getId()).contains("\"Networks\""));
+        assertEquals(course.getId(), courses(nodeB).getCourseIdByName("Networks"));
+        // Act
+        courses(nodeA).patchCourse(course.getId(), CourseDTO.builder().name("Computer Networks").build());
+        // Assert
+        awaitTrue(() -> snapshotOnB(course.getId()).contains("\"Computer Networks\""));
+        awaitTrue(() -> throwsNotFound(() -> courses(nodeB).getCourseIdByName("Networks")));
+    }
+    @Test
+    void createOnOneNode_ShouldClearMissOnTheOther() {
+        // Arrange
+        CourseDTO existing = courses(nodeA).createCourse(CourseDTO.builder().name("Compilers").build());
+        Long nextId = existing.getId() + 1;
+        assertTrue(throwsNotFound(() -> courses(nodeB).getCourseById(nextId)));
+        // Act
+        CourseDTO created = courses(nodeA).createCourse(CourseDTO.builder().name("Databases").build());
+        // Assert
+        assertEquals(nextId, created.getId());
+        awaitTrue(() -> !throwsNotFound(() -> courses(nodeB).getCourseById(nextId)));
+    }
+    @Test
+    void deleteOnOneNode_ShouldDropSnapshotOnTheOther() {
+        // Arrange
+        CourseDTO course = courses(nodeA).createCourse(CourseDTO.builder().name("Graphics").build());
+        assertFalse(snapshotOnB(course.getId()).isEmpty());
+        // Act
+        courses(nodeA).deleteCourse(course.getId());
+        // Assert
+        awaitTrue(() -> courses(nodeB).findCourseSnapshot(course.getId()).isEmpty());
+    }
+
+    @Test
+    void renameOnOneNode_ShouldRefreshSnapshotOnLazilyInitializedReadOnlyNode() {
+        // Arrange
+        try (ConfigurableApplicationContext lazyNode = startNode("--spring.main.lazy-initialization=true")) {
+            CourseDTO course = courses(nodeA).createCourse(CourseDTO.builder().name("Robotics").build());
+            assertTrue(snapshotOn(lazyNode, course.getId()).contains("\"Robotics\""));
+            // Act
+            courses(nodeA).patchCourse(course.getId(), CourseDTO.builder().name("Applied Robotics").build());
+            // Assert
+            awaitTrue(() -> snapshotOn(lazyNode, course.getId()).contains("\"Applied Robotics\""));
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String... extraArgs) {
+        return new SpringApplicationBuilder(CourseManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command line arguments, so they override application.properties
+                .run(Stream.concat(Stream.of(
+                        "--spring.datasource.url=jdbc:h2:mem:cross-node-test;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--cms.invalidation.transport=database",
+                        "--cms.invalidation.poll-ms=50",
+                        "--cms.journal.enabled=false",
+                        "--cms.roster-index.enabled=false"), Stream.of(extraArgs)).toArray(String[]::new));
+    }
+
+    private static CourseService courses(ConfigurableApplicationContext node) {
+        return node.getBean(CourseService.class);
+    }
+
+    private static String snapshotOnB(Long courseId) {
+        return snapshotOn(nodeB, courseId);
+    }
+
+    private static String snapshotOn(ConfigurableApplicationContext node, Long courseId) {
+        return courses(node).findCourseSnapshot(courseId)
+                .map(json -> new String(json, StandardCharsets.UTF_8))
+                .orElse("");
+    }
+
+    private static boolean throwsNotFound(Runnable lookup) {
+        try {
+            lookup.run();
+            return false;
+        } catch (ResourceNotFoundException ex) {
+            return true;
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 10s");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(ex);
+            }
+        }
+    }
+}
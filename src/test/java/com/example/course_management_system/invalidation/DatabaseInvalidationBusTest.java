@@ -0,0 +1,118 @@
+package com.example.course_management_system.invalidation;
+
+import com.example.course_management_system.entity.EntityChange;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import com.example.course_management_system.repository.EntityChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseInvalidationBusTest {
+
+    @Mock
+    private EntityChangeRepository repository;
+    private final TestClock clock = new TestClock();
+    private final List<EntityChangeEvent> received = new ArrayList<>();
+    private DatabaseInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new DatabaseInvalidationBus(repository, 100, Duration.ofSeconds(5), Duration.ofMinutes(10), clock);
+        when(repository.findMaxId()).thenReturn(Optional.of(10L));
+        bus.subscribe(received::add);
+    }
+
+    @Test
+    void poll_ShouldDeliverOnlyOtherNodesChanges() {
+        // Arrange
+        rowsAfter(10L, change(11L, "other-node"), change(12L, bus.getOrigin()));
+        // Act
+        bus.poll();
+        // Assert
+        assertEquals(1, received.size());
+        assertEquals(11L, received.get(0).getEntityId());
+        assertEquals(12L, bus.getCursor());
+    }
+    @Test
+    void poll_WhenLowerIdCommitsLater_ShouldStillDeliverIt() {
+        // Arrange
+        rowsAfter(10L, change(12L, "other-node"));
+        bus.poll();
+        rowsAfter(10L, change(11L, "other-node"), change(12L, "other-node"));
+        // Act
+        bus.poll();
+        // Assert
+        assertEquals(List.of(12L, 11L), received.stream().map(EntityChangeEvent::getEntityId).toList());
+        assertEquals(12L, bus.getCursor());
+    }
+    @Test
+    void poll_WhenIdNeverCommits_ShouldSkipItAfterGapTimeout() {
+        // Arrange
+        rowsAfter(10L, change(12L, "other-node"));
+        bus.poll();
+        assertEquals(10L, bus.getCursor());
+        // Act
+        clock.advance(Duration.ofSeconds(6));
+        bus.poll();
+        // Assert
+        assertEquals(12L, bus.getCursor());
+        assertEquals(1, received.size());
+    }
+
+    private void rowsAfter(Long cursor, EntityChange... changes) {
+        when(repository.findByIdGreaterThanOrderById(eq(cursor), any(Limit.class))).thenReturn(List.of(changes));
+    }
+
+    private EntityChange change(Long id, String origin) {
+        return EntityChange.builder()
+                .id(id)
+                .origin(origin)
+                .entityType(EntityType.COURSE)
+                .changeType(ChangeType.UPDATED)
+                .entityId(id)
+                .courseId(id)
+                .createdAt(clock.instant())
+                .build();
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.course_management_system.jobs;
+
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import com.example.course_management_system.exception.ConflictException;
+import com.example.course_management_system.repository.ArchivedCourseRepository;
+import com.example.course_management_system.repository.ArchivedStudentRepository;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.service.CourseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalApplicationListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reactivates a course between two archiving batches against an in-memory
+ * database, and checks the course still ends up archived as a whole.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archiver-test;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cms.roster-index.enabled=false",
+        "cms.journal.enabled=false",
+        "cms.warmup.enabled=false",
+        "cms.invalidation.transport=none",
+        "cms.archive.batch-size=2",
+        "cms.archive.initial-delay-ms=3600000"
+})
+class CourseArchiverReactivationTest {
+
+    @Autowired
+    private CourseArchiver archiver;
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private ArchivedCourseRepository archivedCourseRepository;
+    @Autowired
+    private ArchivedStudentRepository archivedStudentRepository;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void reactivationBetweenBatches_ShouldBeRefusedAndCourseArchivedWhole() {
+        // Arrange
+        List<StudentDTO> roster = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            roster.add(StudentDTO.builder().name("Student " + i).email("archived" + i + "@example.com").build());
+        }
+        Long courseId = courseService.createCourse(CourseDTO.builder().name("Archived").students(roster).build()).getId();
+        courseService.setCourseActive(courseId, false);
+        List<RuntimeException> reactivations = new ArrayList<>();
+        // Runs once the first batch is in the archive and gone from the live table, like a concurrent request
+        ApplicationListener<?> reactivation = TransactionalApplicationListener.forPayload(TransactionPhase.AFTER_COMMIT,
+                (EntityChangeEvent event) -> {
+                    if (event.getEntityType() == EntityType.STUDENT && reactivations.isEmpty()) {
+                        CompletableFuture.runAsync(() -> {
+                            try {
+                                courseService.setCourseActive(courseId, true);
+                            } catch (RuntimeException ex) {
+                                reactivations.add(ex);
+                            }
+                        }).join();
+                    }
+                });
+        context.addApplicationListener(reactivation);
+        // Act
+        try {
+            assertTrue(archiver.archive(courseId));
+        } finally {
+            context.removeApplicationListener(reactivation);
+        }
+        // Assert
+        assertEquals(1, reactivations.size());
+        assertInstanceOf(ConflictException.class, reactivations.get(0));
+        assertFalse(courseRepository.existsById(courseId));
+        assertTrue(archivedCourseRepository.existsById(courseId));
+        assertEquals(3, archivedStudentRepository.findRosterPage(courseId, 0L, Limit.of(10)).size());
+        assertTrue(studentRepository.findByCourseId(courseId).isEmpty());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.course_management_system.jobs;
+
+import com.example.course_management_system.datasource.Workload;
+import com.example.course_management_system.entity.ArchivedCourse;
+import com.example.course_management_system.entity.ArchivedStudent;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.repository.ArchivedCourseRepository;
+import com.example.course_management_system.repository.ArchivedStudentRepository;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseArchiverTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private ArchivedCourseRepository archivedCourseRepository;
+    @Mock
+    private ArchivedStudentRepository archivedStudentRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CourseArchiver archiver;
+
+    private final Course course = Course.builder().id(1L).name("Math")
+            .inactiveSince(NOW.minus(Duration.ofDays(2))).build();
+
+    @BeforeEach
+    void setUp() {
+        archiver = new CourseArchiver(courseRepository, studentRepository, archivedCourseRepository,
+                archivedStudentRepository, new StudentShards(transactionManager, new String[0]), eventPublisher,
+                transactionManager, true, 2, Duration.ofDays(1), Duration.ofMinutes(10), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void archiveInactiveCourses_ShouldCopyThenDeleteStudentsInBatchesThenMoveCourse() {
+        // Arrange
+        when(courseRepository.findIdsToArchive(NOW.minus(Duration.ofDays(1)), NOW.minus(Duration.ofMinutes(10)), Limit.of(2)))
+                .thenReturn(List.of(1L));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(2)))
+                .thenReturn(List.of(student(1L), student(2L)), List.of(student(3L)), List.of());
+        // Act
+        archiver.archiveInactiveCourses();
+        // Assert
+        verify(archivedStudentRepository, times(2)).saveAll(anyIterable());
+        verify(studentRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(studentRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(archivedCourseRepository).save(argThat(archived ->
+                archived.getId() == 1L && "Math".equals(archived.getName())));
+        verify(courseRepository).delete(course);
+        assertEquals(NOW, course.getArchivingSince());
+        ArgumentCaptor<EntityChangeEvent> events = ArgumentCaptor.forClass(EntityChangeEvent.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        assertEquals(List.of("STUDENT DELETED 1", "STUDENT DELETED 2", "STUDENT DELETED 3", "COURSE DELETED 1"),
+                events.getAllValues().stream()
+                        .map(event -> event.getEntityType() + " " + event.getChangeType() + " " + event.getEntityId())
+                        .toList());
+    }
+    @Test
+    void archiveInactiveCourses_ShouldUseBulkPool() {
+        // Arrange
+        List<Workload> workloads = new ArrayList<>();
+        when(courseRepository.findIdsToArchive(any(), any(), any())).thenAnswer(invocation -> {
+            workloads.add(Workload.current());
+            return List.of();
+        });
+        // Act
+        archiver.archiveInactiveCourses();
+        // Assert
+        assertEquals(List.of(Workload.BULK), workloads);
+        assertEquals(Workload.INTERACTIVE, Workload.current());
+    }
+    @Test
+    void archive_WhenBatchWasCopiedBeforeCrash_ShouldNotCopyItAgain() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(2)))
+                .thenReturn(List.of(student(1L), student(2L)), List.of());
+        when(archivedStudentRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        // Act
+        assertTrue(archiver.archive(1L));
+        // Assert
+        verify(archivedStudentRepository).saveAll(argThat((Iterable<ArchivedStudent> copies) ->
+                List.of(2L).equals(StreamSupport.stream(copies.spliterator(), false).map(ArchivedStudent::getId).toList())));
+        verify(studentRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+    @Test
+    void archive_WhenReactivated_ShouldLeaveCourseLive() {
+        // Arrange
+        course.setInactiveSince(null);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act
+        assertTrue(archiver.archive(1L));
+        // Assert
+        verify(studentRepository, never()).findRosterPage(any(), any(), any());
+        verify(archivedCourseRepository, never()).save(any(ArchivedCourse.class));
+        verify(courseRepository, never()).delete(any(Course.class));
+    }
+
+    @Test
+    void archive_WhenAnotherNodeHoldsClaim_ShouldSkipCourse() {
+        // Arrange
+        course.setArchivingSince(NOW.minus(Duration.ofMinutes(1)));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act
+        assertTrue(archiver.archive(1L));
+        // Assert
+        verify(courseRepository, never()).saveAndFlush(any());
+        verify(studentRepository, never()).findRosterPage(any(), any(), any());
+    }
+    @Test
+    void archive_WhenAnotherNodeClaimsFirst_ShouldSkipCourse() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseRepository.saveAndFlush(course)).thenThrow(new ObjectOptimisticLockingFailureException(Course.class, 1L));
+        // Act
+        assertTrue(archiver.archive(1L));
+        // Assert
+        verify(studentRepository, never()).findRosterPage(any(), any(), any());
+    }
+    @Test
+    void archive_WhenClaimExpired_ShouldTakeOverAndFinish() {
+        // Arrange
+        course.setArchivingSince(NOW.minus(Duration.ofHours(1)));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(2))).thenReturn(List.of());
+        // Act
+        assertTrue(archiver.archive(1L));
+        // Assert
+        assertEquals(NOW, course.getArchivingSince());
+        verify(courseRepository).delete(course);
+    }
+    @Test
+    void archive_WhenCourseChangesBetweenBatches_ShouldStopBeforeNextBatch() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(2))).thenAnswer(invocation -> {
+            // Another writer commits between the claim and the next renewal
+            course.setVersion(course.getVersion() + 1);
+            return List.of(student(1L), student(2L));
+        });
+        // Act
+        assertFalse(archiver.archive(1L));
+        // Assert
+        verify(studentRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(studentRepository).findRosterPage(1L, 0L, Limit.of(2));
+        verify(archivedCourseRepository, never()).save(any(ArchivedCourse.class));
+        verify(courseRepository, never()).delete(any(Course.class));
+    }
+
+    private Student student(Long id) {
+        return Student.builder().id(id).name("s" + id).email("s" + id + "@x.io").course(course).build();
+    }
+}
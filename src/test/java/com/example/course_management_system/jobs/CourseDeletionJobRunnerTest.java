@@ -0,0 +1,169 @@
+package com.example.course_management_system.jobs;
+
+import com.example.course_management_system.datasource.Workload;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.CourseDeletionJob;
+import com.example.course_management_system.entity.CourseDeletionJob.Status;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.repository.CourseDeletionJobRepository;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseDeletionJobRunnerTest {
+
+    @Mock
+    private CourseDeletionJobRepository jobRepository;
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CourseDeletionJobRunner runner;
+
+    private final Course course = Course.builder().id(1L).name("Math").build();
+
+    @BeforeEach
+    void setUp() {
+        runner = new CourseDeletionJobRunner(jobRepository, courseRepository, studentRepository,
+                new StudentShards(transactionManager, new String[0]), eventPublisher, transactionManager, 2);
+    }
+
+    @Test
+    void runPendingJobs_ShouldDeleteInBatchesThenCourse() {
+        // Arrange
+        CourseDeletionJob job = CourseDeletionJob.builder().id(7L).courseId(1L).build();
+        when(jobRepository.findByStatusInOrderById(Status.ACTIVE)).thenReturn(List.of(job));
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(studentRepository.findIdsByCourseId(1L, Limit.of(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseRepository.incrementVersion(1L, 0L)).thenReturn(1);
+        // Act
+        runner.runPendingJobs();
+        // Assert
+        verify(studentRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(studentRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(courseRepository).delete(course);
+        ArgumentCaptor<EntityChangeEvent> events = ArgumentCaptor.forClass(EntityChangeEvent.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        assertEquals(List.of("STUDENT DELETED 1", "STUDENT DELETED 2", "STUDENT DELETED 3", "COURSE DELETED 1"),
+                events.getAllValues().stream()
+                        .map(event -> event.getEntityType() + " " + event.getChangeType() + " " + event.getEntityId())
+                        .toList());
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.getStudentsDeleted());
+    }
+    @Test
+    void runPendingJobs_ShouldUseBulkPool() {
+        // Arrange
+        List<Workload> workloads = new ArrayList<>();
+        when(jobRepository.findByStatusInOrderById(Status.ACTIVE)).thenAnswer(invocation -> {
+            workloads.add(Workload.current());
+            return List.of();
+        });
+        // Act
+        runner.runPendingJobs();
+        // Assert
+        assertEquals(List.of(Workload.BULK), workloads);
+        assertEquals(Workload.INTERACTIVE, Workload.current());
+    }
+    @Test
+    void runPendingJobs_WhenResumedAfterRestart_ShouldContinueFromRemainingStudents() {
+        // Arrange
+        CourseDeletionJob job = CourseDeletionJob.builder().id(7L).courseId(1L)
+                .status(Status.RUNNING).studentsDeleted(500).build();
+        when(jobRepository.findByStatusInOrderById(Status.ACTIVE)).thenReturn(List.of(job));
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(studentRepository.findIdsByCourseId(1L, Limit.of(2))).thenReturn(List.of(501L), List.of());
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseRepository.incrementVersion(1L, 0L)).thenReturn(1);
+        // Act
+        runner.runPendingJobs();
+        // Assert
+        assertEquals(Status.COMPLETED, job.getStatus());
+        assertEquals(501, job.getStudentsDeleted());
+    }
+    @Test
+    void runPendingJobs_WhenAdvancedConcurrently_ShouldLeaveJobActive() {
+        // Arrange
+        CourseDeletionJob job = CourseDeletionJob.builder().id(7L).courseId(1L).build();
+        when(jobRepository.findByStatusInOrderById(Status.ACTIVE)).thenReturn(List.of(job));
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(studentRepository.findIdsByCourseId(1L, Limit.of(2))).thenReturn(List.of(1L));
+        doThrow(new ObjectOptimisticLockingFailureException(CourseDeletionJob.class, 7L))
+                .when(transactionManager).commit(any());
+        // Act
+        runner.runPendingJobs();
+        // Assert
+        assertNotEquals(Status.FAILED, job.getStatus());
+        verify(courseRepository, never()).delete(any(Course.class));
+    }
+    @Test
+    void runPendingJobs_WhenCourseIsBeingArchived_ShouldFailJobWithoutDeleting() {
+        // Arrange
+        course.setArchivingSince(Instant.now());
+        CourseDeletionJob job = CourseDeletionJob.builder().id(7L).courseId(1L).build();
+        when(jobRepository.findByStatusInOrderById(Status.ACTIVE)).thenReturn(List.of(job));
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act
+        runner.runPendingJobs();
+        // Assert
+        assertEquals(Status.FAILED, job.getStatus());
+        assertEquals("Course 1 is being archived", job.getError());
+        verify(studentRepository, never()).deleteAllByIdInBatch(any());
+        verify(courseRepository, never()).delete(any(Course.class));
+    }
+    @Test
+    void runPendingJobs_WhenCourseChangedSinceRead_ShouldLeaveBatchForNextRun() {
+        // Arrange
+        CourseDeletionJob job = CourseDeletionJob.builder().id(7L).courseId(1L).build();
+        when(jobRepository.findByStatusInOrderById(Status.ACTIVE)).thenReturn(List.of(job));
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findIdsByCourseId(1L, Limit.of(2))).thenReturn(List.of(1L));
+        when(courseRepository.incrementVersion(1L, 0L)).thenReturn(0);
+        // Act
+        runner.runPendingJobs();
+        // Assert
+        assertEquals(Status.PENDING, job.getStatus());
+        verify(studentRepository, never()).deleteAllByIdInBatch(any());
+    }
+    @Test
+    void runPendingJobs_WhenBatchFails_ShouldMarkJobFailed() {
+        // Arrange
+        CourseDeletionJob job = CourseDeletionJob.builder().id(7L).courseId(1L).build();
+        when(jobRepository.findByStatusInOrderById(Status.ACTIVE)).thenReturn(List.of(job));
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(studentRepository.findIdsByCourseId(1L, Limit.of(2))).thenThrow(new IllegalStateException("boom"));
+        // Act
+        runner.runPendingJobs();
+        // Assert
+        assertEquals(Status.FAILED, job.getStatus());
+        assertEquals("boom", job.getError());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.course_management_system.journal;
+
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.event.EntityChangeEvent.EntityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void appendedChanges_ShouldReadBackInOrder() throws Exception {
+        // Arrange
+        ChangeJournal journal = journal(DataSize.ofMegabytes(1), 16);
+        // Act
+        journal.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        journal.onChange(EntityChangeEvent.student(ChangeType.CREATED, 1L << 40, 1L));
+        journal.onChange(EntityChangeEvent.studentMoved(1L << 40, 2L, 1L));
+        journal.close();
+        // Assert
+        List<JournalRecord> records = readAll(1);
+        assertEquals(3, records.size());
+        assertEquals(List.of(1L, 2L, 3L), records.stream().map(JournalRecord::sequence).toList());
+        JournalRecord moved = records.get(2);
+        assertEquals(EntityType.STUDENT, moved.entityType());
+        assertEquals(ChangeType.UPDATED, moved.changeType());
+        assertEquals(1L << 40, moved.entityId());
+        assertEquals(2L, moved.courseId());
+        assertEquals(1L, moved.previousCourseId());
+        assertNull(records.get(1).previousCourseId());
+        assertTrue(Math.abs(System.currentTimeMillis() - moved.timestamp()) < 60_000);
+    }
+    @Test
+    void fullSegments_ShouldRotateAndReopenAfterLastRecord() throws Exception {
+        // Arrange
+        ChangeJournal first = journal(DataSize.ofBytes(128), 16);
+        for (long id = 1; id <= 20; id++) {
+            first.onChange(EntityChangeEvent.course(ChangeType.CREATED, id));
+        }
+        first.close();
+        // Act
+        ChangeJournal second = journal(DataSize.ofBytes(128), 16);
+        second.onChange(EntityChangeEvent.course(ChangeType.DELETED, 7L));
+        second.close();
+        // Assert
+        assertTrue(JournalReader.segments(directory).size() > 1);
+        List<JournalRecord> records = readAll(1);
+        assertEquals(21, records.size());
+        assertEquals(21L, records.get(20).sequence());
+        assertEquals(ChangeType.DELETED, records.get(20).changeType());
+        assertEquals(List.of(20L, 21L), readAll(20).stream().map(JournalRecord::sequence).toList());
+    }
+    @Test
+    void secondJournalOnSameDirectory_ShouldBeRefusedUntilFirstCloses() throws Exception {
+        // Arrange
+        ChangeJournal first = journal(DataSize.ofMegabytes(1), 16);
+        first.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        // Act & Assert
+        assertThrows(UncheckedIOException.class, () -> journal(DataSize.ofMegabytes(1), 16));
+        first.close();
+        ChangeJournal second = journal(DataSize.ofMegabytes(1), 16);
+        second.onChange(EntityChangeEvent.course(ChangeType.CREATED, 2L));
+        second.close();
+        assertEquals(List.of(1L, 2L), readAll(1).stream().map(JournalRecord::sequence).toList());
+    }
+    @Test
+    void concurrentAppendsThroughSmallBuffer_ShouldAllBeWritten() throws Exception {
+        // Arrange
+        ChangeJournal journal = journal(DataSize.ofKilobytes(4), 4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        for (int thread = 0; thread < 8; thread++) {
+            long base = thread * 10_000L;
+            executor.submit(() -> {
+                for (long id = 1; id <= 1000; id++) {
+                    journal.onChange(EntityChangeEvent.student(ChangeType.CREATED, base + id, 1L));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        journal.close();
+        // Assert
+        List<JournalRecord> records = readAll(1);
+        Set<Long> ids = new HashSet<>();
+        records.forEach(record -> ids.add(record.entityId()));
+        assertEquals(8000, records.size());
+        assertEquals(8000, ids.size());
+        assertEquals(8000L, records.get(records.size() - 1).sequence());
+        Map<String, Object> statistics = journal.getStatistics();
+        assertEquals(8000L, statistics.get("written"));
+        assertEquals(0L, statistics.get("dropped"));
+    }
+    @Test
+    void replay_ShouldRebuildCoursesAndRosters() throws Exception {
+        // Arrange
+        ChangeJournal journal = journal(DataSize.ofMegabytes(1), 16);
+        journal.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        journal.onChange(EntityChangeEvent.course(ChangeType.CREATED, 2L));
+        journal.onChange(EntityChangeEvent.student(ChangeType.CREATED, 10L, 1L));
+        journal.onChange(EntityChangeEvent.student(ChangeType.CREATED, 11L, 1L));
+        journal.onChange(EntityChangeEvent.student(ChangeType.CREATED, 12L, 2L));
+        journal.onChange(EntityChangeEvent.studentMoved(10L, 2L, 1L));
+        journal.onChange(EntityChangeEvent.course(ChangeType.DELETED, 1L));
+        journal.close();
+        JournalTool.Replay replay = new JournalTool.Replay();
+        // Act
+        JournalReader.replay(directory, 1, replay::apply);
+        // Assert
+        assertEquals(Set.of(2L), replay.getCourses());
+        assertEquals(Map.of(10L, 2L, 12L, 2L), replay.getStudentCourses());
+    }
+    @Test
+    void disabledJournal_ShouldWriteNothing() throws Exception {
+        // Arrange
+        ChangeJournal journal = new ChangeJournal(false, directory, DataSize.ofMegabytes(1), 16, Duration.ofSeconds(1));
+        // Act
+        journal.onChange(EntityChangeEvent.course(ChangeType.CREATED, 1L));
+        journal.close();
+        // Assert
+        assertTrue(JournalReader.segments(directory).isEmpty());
+    }
+
+    private ChangeJournal journal(DataSize segmentSize, int bufferSize) {
+        return new ChangeJournal(true, directory, segmentSize, bufferSize, Duration.ofMillis(10));
+    }
+
+    private List<JournalRecord> readAll(long fromSequence) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        JournalReader.replay(directory, fromSequence, records::add);
+        return records;
+    }
+}
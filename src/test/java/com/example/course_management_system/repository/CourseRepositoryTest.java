@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MySQLContainer;
@@ -86,6 +87,19 @@ class CourseRepositoryTest {
         assertEquals(2, coursesPage.getTotalElements());
     }
     @Test
+    void shouldReturnSliceWithoutTotal() {
+        // Arrange
+        courseRepository.saveAll(List.of(
+                Course.builder().name("Math").build(),
+                Course.builder().name("Physics").build(),
+                Course.builder().name("Chemistry").build()));
+        // Act
+        Slice<Course> coursesSlice = courseRepository.findAllBy(PageRequest.of(0, 2));
+        // Assert
+        assertEquals(2, coursesSlice.getNumberOfElements());
+        assertTrue(coursesSlice.hasNext());
+    }
+    @Test
     void shouldUpdateCourse() {
         // Arrange
         Course course = courseRepository.save(Course.builder()
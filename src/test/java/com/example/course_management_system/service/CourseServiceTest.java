@@ -1,18 +1,39 @@
 package com.example.course_management_system.service;
 
+import com.example.course_management_system.analytics.CourseAnalytics;
+import com.example.course_management_system.cache.ApproximateCounts;
+import com.example.course_management_system.cache.CourseNames;
+import com.example.course_management_system.cache.HotPages;
+import com.example.course_management_system.cache.MissingIds;
 import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.CourseDeletionJobDTO;
+import com.example.course_management_system.dto.RosterPageDTO;
+import com.example.course_management_system.dto.StudentDTO;
 import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.CourseDeletionJob;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.exception.ConflictException;
 import com.example.course_management_system.exception.ResourceNotFoundException;
+import com.example.course_management_system.repository.CourseDeletionJobRepository;
 import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import com.example.course_management_system.snapshot.RosterSnapshots;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.willDoNothing;
@@ -26,6 +47,27 @@ class CourseServiceTest {
 
     @Mock
     private ModelMapper modelMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ApproximateCounts approximateCounts;
+    @Mock
+    private RosterSnapshots rosterSnapshots;
+    @Mock
+    private CourseDeletionJobRepository deletionJobRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Spy
+    private StudentShards studentShards = new StudentShards(null, new String[0]);
+    @Spy
+    private MissingIds missingIds = new MissingIds(100, Duration.ofSeconds(30));
+
+    @Mock
+    private CourseAnalytics courseAnalytics;
+    @Spy
+    private CourseNames courseNames = new CourseNames(100);
+    @Spy
+    private HotPages hotPages = new HotPages(null, List.of(), List.of(), Duration.ofSeconds(30), Duration.ofSeconds(10));
 
     @InjectMocks
     private CourseServiceImpl courseService;
@@ -54,15 +96,98 @@ class CourseServiceTest {
         verify(courseRepository).save(any(Course.class));
     }
     @Test
+    void createCourse_ShouldPublishCreatedEvent() {
+        // Arrange
+        when(modelMapper.map(any(CourseDTO.class), eq(Course.class))).thenReturn(course);
+        when(courseRepository.save(any(Course.class))).thenReturn(course);
+        // Act
+        courseService.createCourse(courseDTO);
+        // Assert
+        verify(eventPublisher).publishEvent(argThat((EntityChangeEvent event) ->
+                event.getChangeType() == EntityChangeEvent.ChangeType.CREATED && event.getEntityId() == 1L));
+    }
+    @Test
+    void createCourse_WithRoster_ShouldInsertStudentsTogetherAndPublishEach() {
+        // Arrange
+        CourseDTO request = CourseDTO.builder().name("Math").students(List.of(
+                new StudentDTO(null, "samira", "samira@gmail.com", null),
+                new StudentDTO(null, "sara", "sara@gmail.com", 99L))).build();
+        when(modelMapper.map(any(CourseDTO.class), eq(Course.class))).thenReturn(course);
+        when(courseRepository.save(any(Course.class))).thenReturn(course);
+        when(modelMapper.map(any(Course.class), eq(CourseDTO.class)))
+                .thenReturn(CourseDTO.builder().id(1L).name("Math").build());
+        doAnswer(invocation -> {
+            List<Student> roster = invocation.getArgument(1);
+            roster.get(0).setId(10L);
+            roster.get(1).setId(11L);
+            return null;
+        }).when(studentRepository).insertAll(eq(1L), anyList());
+        // Act
+        CourseDTO result = courseService.createCourse(request);
+        // Assert
+        verify(studentRepository).insertAll(eq(1L), argThat(roster -> roster.size() == 2
+                && roster.stream().allMatch(student -> student.getCourse() == course)));
+        verify(studentRepository, never()).save(any(Student.class));
+        verify(eventPublisher, times(2)).publishEvent(argThat((Object event) ->
+                event instanceof EntityChangeEvent change && change.getEntityType() == EntityChangeEvent.EntityType.STUDENT));
+        assertEquals(List.of(10L, 11L), result.getStudents().stream().map(StudentDTO::getId).toList());
+        assertEquals(1L, result.getStudents().get(1).getCourseId());
+        assertNull(result.getNextStudentsCursor());
+    }
+    @Test
     void getCourseById_ShouldReturnCourseDTO() {
         // Arrange
         when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
-        when(modelMapper.map(any(Course.class), eq(CourseDTO.class))).thenReturn(courseDTO);
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(CourseDTO.STUDENT_PREVIEW_SIZE + 1)))
+                .thenReturn(List.of(student(1L)));
+        when(modelMapper.map(any(Student.class), eq(StudentDTO.class))).thenReturn(new StudentDTO());
         // Act
         CourseDTO result = courseService.getCourseById(1L);
         // Assert
         assertNotNull(result);
         assertEquals("Math", result.getName());
+        assertEquals(1, result.getStudents().size());
+        assertNull(result.getNextStudentsCursor());
+        verify(courseRepository).findById(1L);
+        verify(studentRepository).findRosterPage(1L, 0L, Limit.of(CourseDTO.STUDENT_PREVIEW_SIZE + 1));
+        verifyNoMoreInteractions(courseRepository, studentRepository);
+    }
+    @Test
+    void getCourseById_WithLargeRoster_ShouldEmbedFirstStudentsAndCursor() {
+        // Arrange
+        List<Student> firstRows = LongStream.rangeClosed(1, CourseDTO.STUDENT_PREVIEW_SIZE + 1)
+                .mapToObj(this::student)
+                .toList();
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(eq(1L), eq(0L), any(Limit.class))).thenReturn(firstRows);
+        when(modelMapper.map(any(Student.class), eq(StudentDTO.class))).thenReturn(new StudentDTO());
+        // Act
+        CourseDTO result = courseService.getCourseById(1L);
+        // Assert
+        assertEquals(CourseDTO.STUDENT_PREVIEW_SIZE, result.getStudents().size());
+        assertEquals((long) CourseDTO.STUDENT_PREVIEW_SIZE, result.getNextStudentsCursor());
+        verify(courseRepository, never()).findByIdIn(any());
+    }
+    @Test
+    void getCourseStudents_ShouldPageAfterCursorWithCappedLimit() {
+        // Arrange
+        when(studentRepository.findRosterPage(1L, 100L, Limit.of(CourseServiceImpl.MAX_ROSTER_PAGE_SIZE + 1)))
+                .thenReturn(List.of(student(101L), student(102L)));
+        when(modelMapper.map(any(Student.class), eq(StudentDTO.class))).thenReturn(new StudentDTO());
+        // Act
+        RosterPageDTO page = courseService.getCourseStudents(1L, 100L, 50_000);
+        // Assert
+        assertEquals(2, page.getStudents().size());
+        assertNull(page.getNextCursor());
+        verifyNoInteractions(courseRepository);
+    }
+    @Test
+    void getCourseStudents_WhenCourseMissing_ShouldThrowException() {
+        // Arrange
+        when(studentRepository.findRosterPage(eq(2L), eq(0L), any(Limit.class))).thenReturn(List.of());
+        when(courseRepository.existsById(2L)).thenReturn(false);
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> courseService.getCourseStudents(2L, 0L, 10));
     }
     @Test
     void getCourseById_WhenNotFound_ShouldThrowException() {
@@ -72,6 +197,45 @@ class CourseServiceTest {
         assertThrows(ResourceNotFoundException.class, () ->
                 courseService.getCourseById(2L));
     }
+    @Test
+    void getCourseById_AfterCreate_ShouldQueryAgain() {
+        // Arrange
+        when(courseRepository.findById(2L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> courseService.getCourseById(2L));
+        assertTrue(courseService.findCourseSnapshot(2L).isEmpty());
+        // Act
+        missingIds.onChange(EntityChangeEvent.course(EntityChangeEvent.ChangeType.CREATED, 2L));
+        // Assert
+        assertThrows(ResourceNotFoundException.class, () -> courseService.getCourseById(2L));
+        verify(courseRepository, times(2)).findById(2L);
+        verifyNoInteractions(rosterSnapshots);
+    }
+    @Test
+    void getCourseIdByName_ShouldQueryOnlyOnce() {
+        // Arrange
+        when(courseRepository.findIdByName("Math")).thenReturn(Optional.of(1L));
+        // Act
+        Long first = courseService.getCourseIdByName("Math");
+        Long second = courseService.getCourseIdByName("Math");
+        // Assert
+        assertEquals(1L, first);
+        assertEquals(1L, second);
+        verify(courseRepository, times(1)).findIdByName("Math");
+    }
+    @Test
+    void getCourseIdByName_AfterRename_ShouldResolveNewNameOnly() {
+        // Arrange
+        when(courseRepository.findIdByName("Math")).thenReturn(Optional.of(1L), Optional.empty());
+        courseService.getCourseIdByName("Math");
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseRepository.save(any(Course.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Act
+        courseService.updateCourse(1L, CourseDTO.builder().name("Algebra").build());
+        // Assert
+        assertEquals(1L, courseService.getCourseIdByName("Algebra"));
+        assertThrows(ResourceNotFoundException.class, () -> courseService.getCourseIdByName("Math"));
+        verify(courseRepository, never()).findIdByName("Algebra");
+    }
     /*  @Test
         void shouldReturnPagedCourses() {
     //Arrange
@@ -92,25 +256,45 @@ class CourseServiceTest {
         Page<Course> page = new PageImpl<>(List.of(course));
 
         when(courseRepository.findAll(pageable)).thenReturn(page);
-        when(modelMapper.map(any(Course.class), eq(CourseDTO.class))).thenReturn(courseDTO);
         // Act
         Page<CourseDTO> result = courseService.getAllCourses(0, 10, "name", "asc");
         // Assert
         assertEquals(1, result.getTotalElements());
         assertEquals("Math", result.getContent().get(0).getName());
+        assertNull(result.getContent().get(0).getStudents());
+        verifyNoInteractions(studentRepository);
+    }
+    @Test
+    void getCoursesSlice_ShouldUseCountFreeQuery() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name").ascending());
+        when(courseRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(course), pageable, true));
+        // Act
+        Slice<CourseDTO> result = courseService.getCoursesSlice(0, 10, "name", "asc");
+        // Assert
+        assertTrue(result.hasNext());
+        assertEquals("Math", result.getContent().get(0).getName());
+        verify(courseRepository, never()).findAll(any(Pageable.class));
+        verify(courseRepository, never()).count();
     }
     @Test
     void updateCourse_ShouldReturnUpdatedCourse() {
         // Arrange
         when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
         when(courseRepository.save(any(Course.class))).thenReturn(course);
-        when(modelMapper.map(any(Course.class), eq(CourseDTO.class))).thenReturn(courseDTO);
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(CourseDTO.STUDENT_PREVIEW_SIZE + 1)))
+                .thenReturn(List.of(student(1L)));
+        when(modelMapper.map(any(Student.class), eq(StudentDTO.class))).thenReturn(new StudentDTO());
         // Act
         CourseDTO result = courseService.updateCourse(1L, courseDTO);
         // Assert
         assertNotNull(result);
         assertEquals(1L, result.getId());
+        assertEquals(1, result.getStudents().size());
+        assertNull(result.getNextStudentsCursor());
+        verify(courseRepository).findById(1L);
         verify(courseRepository).save(any(Course.class));
+        verifyNoMoreInteractions(courseRepository);
     }
     @Test
     void updateCourse_WhenNotFound_ShouldThrowException() {
@@ -121,6 +305,29 @@ class CourseServiceTest {
                 courseService.updateCourse(2L, courseDTO));
     }
     @Test
+    void patchCourse_WithNewName_ShouldSaveAndPublishUpdate() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(courseRepository.save(any(Course.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Act
+        CourseDTO result = courseService.patchCourse(1L, CourseDTO.builder().name("Algebra").build());
+        // Assert
+        assertEquals("Algebra", result.getName());
+        verify(eventPublisher).publishEvent(argThat((EntityChangeEvent event) ->
+                event.getChangeType() == EntityChangeEvent.ChangeType.UPDATED && event.getEntityId() == 1L));
+    }
+    @Test
+    void patchCourse_WithoutChanges_ShouldNotWrite() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act
+        CourseDTO result = courseService.patchCourse(1L, CourseDTO.builder().name("Math").build());
+        // Assert
+        assertEquals("Math", result.getName());
+        verify(courseRepository, never()).save(any(Course.class));
+        verifyNoInteractions(eventPublisher);
+    }
+    @Test
     void deleteCourse_ShouldDeleteWhenExists() {
         // Arrange
         when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
@@ -139,13 +346,104 @@ class CourseServiceTest {
                 courseService.deleteCourse(2L));
     }
     @Test
+    void setCourseActive_WhenDeactivatedTwice_ShouldKeepFirstTimestamp() {
+        // Arrange
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        course.setInactiveSince(since);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act
+        courseService.setCourseActive(1L, false);
+        // Assert
+        assertEquals(since, course.getInactiveSince());
+    }
+    @Test
+    void setCourseActive_WhenReactivated_ShouldClearInactiveSince() {
+        // Arrange
+        course.setInactiveSince(Instant.now());
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act
+        courseService.setCourseActive(1L, true);
+        // Assert
+        assertNull(course.getInactiveSince());
+    }
+    @Test
+    void setCourseActive_WhenBeingArchived_ShouldRefuseReactivation() {
+        // Arrange
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        course.setInactiveSince(since);
+        course.setArchivingSince(Instant.now());
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> courseService.setCourseActive(1L, true));
+        assertEquals(since, course.getInactiveSince());
+    }
+    @Test
+    void deleteCourse_WhenBeingArchived_ShouldRefuse() {
+        // Arrange
+        course.setArchivingSince(Instant.now());
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> courseService.deleteCourse(1L));
+        verify(courseRepository, never()).delete(any(Course.class));
+    }
+    @Test
+    void startCourseDeletion_ShouldQueueJob() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(deletionJobRepository.findFirstByCourseIdAndStatusIn(1L, CourseDeletionJob.Status.ACTIVE))
+                .thenReturn(Optional.empty());
+        when(deletionJobRepository.save(any(CourseDeletionJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Act
+        courseService.startCourseDeletion(1L);
+        // Assert
+        verify(deletionJobRepository).save(argThat(job ->
+                job.getCourseId() == 1L && job.getStatus() == CourseDeletionJob.Status.PENDING));
+        verify(courseRepository, never()).delete(any(Course.class));
+    }
+    @Test
+    void startCourseDeletion_WhenJobAlreadyActive_ShouldReuseIt() {
+        // Arrange
+        CourseDeletionJob running = CourseDeletionJob.builder().id(7L).courseId(1L)
+                .status(CourseDeletionJob.Status.RUNNING).build();
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(deletionJobRepository.findFirstByCourseIdAndStatusIn(1L, CourseDeletionJob.Status.ACTIVE))
+                .thenReturn(Optional.of(running));
+        // Act
+        courseService.startCourseDeletion(1L);
+        // Assert
+        verify(deletionJobRepository, never()).save(any(CourseDeletionJob.class));
+        verify(modelMapper).map(running, CourseDeletionJobDTO.class);
+    }
+    @Test
+    void startCourseDeletion_WhenBeingArchived_ShouldRefuse() {
+        // Arrange
+        course.setArchivingSince(Instant.now());
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> courseService.startCourseDeletion(1L));
+        verifyNoInteractions(deletionJobRepository);
+    }
+    @Test
+    void startCourseDeletion_WhenNotFound_ShouldThrowException() {
+        // Arrange
+        when(courseRepository.findById(2L)).thenReturn(Optional.empty());
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> courseService.startCourseDeletion(2L));
+        verifyNoInteractions(deletionJobRepository);
+    }
+    @Test
     void whenModelMapperFails_ShouldThrowException() {
         // Arrange
         when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
-        when(modelMapper.map(any(Course.class), eq(CourseDTO.class)))
+        when(studentRepository.findRosterPage(eq(1L), eq(0L), any(Limit.class))).thenReturn(List.of(student(1L)));
+        when(modelMapper.map(any(Student.class), eq(StudentDTO.class)))
                 .thenThrow(new RuntimeException("Mapping failed"));
         // Act & Assert
         assertThrows(RuntimeException.class, () ->
                 courseService.getCourseById(1L));
     }
-}
\ No newline at end of file
+
+    private Student student(long id) {
+        return Student.builder().id(id).name("s" + id).email("s" + id + "@gmail.com").course(course).build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.course_management_system.service;
+
+import com.example.course_management_system.dto.BatchResult;
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import java.util.List;
+import static com.example.course_management_system.support.QueryCountAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exact SQL statement counts per service call, counted by the proxied
+ * DataSource against an in-memory database. The in-memory read paths are
+ * switched off so every read reaches the database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count-test;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "cms.roster-index.enabled=false",
+        "cms.roster-snapshots.enabled=false",
+        "cms.hot-pages.courses=",
+        "cms.hot-pages.students=",
+        "cms.journal.enabled=false",
+        "cms.warmup.enabled=false",
+        "cms.archive.enabled=false",
+        "cms.invalidation.transport=none"
+})
+class ServiceQueryCountTest {
+
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private StudentService studentService;
+
+    private CourseDTO course;
+    private StudentDTO student;
+
+    @BeforeEach
+    void setUp() {
+        long n = System.nanoTime();
+        course = courseService.createCourse(CourseDTO.builder().name("course" + n).build());
+        student = studentService.createStudent(StudentDTO.builder()
+                .name("student" + n).email("student" + n + "@example.com").courseId(course.getId()).build());
+        studentService.createStudent(StudentDTO.builder()
+                .name("other" + n).email("other" + n + "@example.com").courseId(course.getId()).build());
+        resetStatements();
+    }
+
+    @Test
+    void getStudentById_ShouldRunOneSelect() {
+        // Act
+        studentService.getStudentById(student.getId());
+        // Assert
+        assertStatements(1);
+    }
+    @Test
+    void getStudentsByIds_ShouldRunOneSelectForAllIds() {
+        // Act
+        studentService.getStudentsByIds(List.of(student.getId(), student.getId() + 1, -1L));
+        // Assert
+        assertStatements(1);
+    }
+    @Test
+    void getStudentsByCourseId_ShouldRunOneSelect() {
+        // Act
+        List<StudentDTO> roster = studentService.getStudentsByCourseId(course.getId());
+        // Assert
+        assertEquals(2, roster.size());
+        assertStatements(1);
+    }
+    @Test
+    void getCourseById_ShouldNotLoadStudentsOneByOne() {
+        // Act
+        CourseDTO result = courseService.getCourseById(course.getId());
+        // Assert
+        assertEquals(2, result.getStudents().size());
+        assertSelects(2);
+        assertStatements(2);
+    }
+    @Test
+    void getCoursesByIds_ShouldRunOneSelectForAllIds() {
+        // Act
+        BatchResult<CourseDTO> result = courseService.getCoursesByIds(List.of(course.getId(), -1L));
+        // Assert
+        assertNull(result.getItems().get(0).getStudents());
+        assertStatements(1);
+    }
+    @Test
+    void getAllCourses_ShouldNotLoadRosters() {
+        // Act
+        // A first page shorter than the page size needs no count query
+        Page<CourseDTO> page = courseService.getAllCourses(0, 1000, "id", "asc");
+        // Assert
+        assertTrue(page.getContent().stream().allMatch(listed -> listed.getStudents() == null));
+        assertStatements(1);
+    }
+    @Test
+    void updateStudent_ShouldReadStudentAndCourseThenUpdate() {
+        // Act
+        studentService.updateStudent(student.getId(), StudentDTO.builder()
+                .name("renamed").email(student.getEmail()).courseId(course.getId()).build());
+        // Assert
+        assertSelects(2);
+        assertStatements(3);
+    }
+    @Test
+    void patchStudent_WithUnchangedValues_ShouldOnlyRead() {
+        // Act
+        studentService.patchStudent(student.getId(), StudentDTO.builder().email(student.getEmail()).build());
+        // Assert
+        assertStatements(1);
+    }
+    @Test
+    void createCourse_WithRoster_ShouldInsertStudentsInOneBatch() {
+        // Arrange
+        long n = System.nanoTime();
+        List<StudentDTO> roster = List.of(
+                StudentDTO.builder().name("a" + n).email("a" + n + "@example.com").build(),
+                StudentDTO.builder().name("b" + n).email("b" + n + "@example.com").build(),
+                StudentDTO.builder().name("c" + n).email("c" + n + "@example.com").build());
+        // Act
+        courseService.createCourse(CourseDTO.builder().name("nested" + n).students(roster).build());
+        // Assert
+        assertEquals(2, statements().getInsert());
+    }
+}
@@ -1,20 +1,33 @@
 package com.example.course_management_system.service;
 
+import com.example.course_management_system.cache.ApproximateCounts;
+import com.example.course_management_system.cache.HotPages;
+import com.example.course_management_system.cache.MissingIds;
+import com.example.course_management_system.dto.BatchResult;
 import com.example.course_management_system.dto.StudentDTO;
 import com.example.course_management_system.entity.Course;
 import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.exception.BadRequestException;
 import com.example.course_management_system.exception.ResourceNotFoundException;
+import com.example.course_management_system.index.RosterIndex;
 import com.example.course_management_system.repository.CourseRepository;
 import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import com.example.course_management_system.snapshot.RosterSnapshots;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.willDoNothing;
@@ -29,6 +42,20 @@ class StudentServiceTest {
     private CourseRepository courseRepository;
     @Mock
     private ModelMapper modelMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ApproximateCounts approximateCounts;
+    @Mock
+    private RosterSnapshots rosterSnapshots;
+    @Mock
+    private RosterIndex rosterIndex;
+    @Spy
+    private StudentShards studentShards = new StudentShards(null, new String[0]);
+    @Spy
+    private MissingIds missingIds = new MissingIds(100, Duration.ofSeconds(30));
+    @Spy
+    private HotPages hotPages = new HotPages(null, List.of(), List.of(), Duration.ofSeconds(30), Duration.ofSeconds(10));
     @InjectMocks
     private StudentServiceImpl studentService;
 
@@ -36,7 +63,7 @@ class StudentServiceTest {
             .id(1L)
             .name("samira")
             .email("samira@gmail.com")
-            .course(new Course(1L, "Math", null))
+            .course(Course.builder().id(1L).name("Math").build())
             .build();
 
     private final StudentDTO studentDTO = StudentDTO.builder()
@@ -49,7 +76,7 @@ class StudentServiceTest {
     @Test
     void createStudent_ShouldReturnStudentDTO() {
         // Arrange
-        when(courseRepository.findById(1L)).thenReturn(Optional.of(new Course(1L, "Math", null)));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(Course.builder().id(1L).name("Math").build()));
         when(modelMapper.map(any(StudentDTO.class), eq(Student.class))).thenReturn(student);
         when(studentRepository.save(any(Student.class))).thenReturn(student);
         when(modelMapper.map(any(Student.class), eq(StudentDTO.class))).thenReturn(studentDTO);
@@ -72,6 +99,30 @@ class StudentServiceTest {
         assertEquals("samira", result.getName());
     }
     @Test
+    void getStudentsByIds_ShouldKeepRequestOrderAndReportMissing() {
+        // Arrange
+        Student second = Student.builder().id(2L).name("sara").email("sara@gmail.com").build();
+        StudentDTO secondDTO = StudentDTO.builder().id(2L).name("sara").build();
+        when(studentRepository.findAllById(List.of(2L, 9L, 1L))).thenReturn(List.of(student, second));
+        when(modelMapper.map(student, StudentDTO.class)).thenReturn(studentDTO);
+        when(modelMapper.map(second, StudentDTO.class)).thenReturn(secondDTO);
+        // Act
+        BatchResult<StudentDTO> result = studentService.getStudentsByIds(List.of(2L, 9L, 1L));
+        // Assert
+        assertEquals(List.of(2L, 1L), result.getItems().stream().map(StudentDTO::getId).toList());
+        assertEquals(List.of(9L), result.getMissingIds());
+        verify(studentRepository).findAllById(List.of(2L, 9L, 1L));
+        verifyNoMoreInteractions(studentRepository, courseRepository);
+    }
+    @Test
+    void getStudentsByIds_WithTooManyIds_ShouldThrowBadRequest() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> studentService.getStudentsByIds(ids));
+        verifyNoInteractions(studentRepository);
+    }
+    @Test
     void getAllStudents_ShouldReturnPage(){
         // Arrange
         String sortBy = "name";
@@ -98,6 +149,32 @@ class StudentServiceTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(1L, result.get(0).getId());
+        verify(studentRepository).findByCourseId(1L);
+        verifyNoMoreInteractions(studentRepository, courseRepository);
+    }
+    @Test
+    void getStudentsByCourseId_WhenIndexed_ShouldNotQuery() {
+        // Arrange
+        when(rosterIndex.findRoster(1L)).thenReturn(Optional.of(List.of(studentDTO)));
+        // Act
+        List<StudentDTO> result = studentService.getStudentsByCourseId(1L);
+        // Assert
+        assertEquals(List.of(studentDTO), result);
+        verifyNoInteractions(studentRepository, courseRepository);
+    }
+    @Test
+    void getStudentsSlice_ShouldUseCountFreeQuery() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name").ascending());
+        when(studentRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(student), pageable, true));
+        when(modelMapper.map(any(Student.class), eq(StudentDTO.class))).thenReturn(studentDTO);
+        // Act
+        Slice<StudentDTO> result = studentService.getStudentsSlice(0, 10, "name", "asc");
+        // Assert
+        assertTrue(result.hasNext());
+        assertEquals("samira", result.getContent().get(0).getName());
+        verify(studentRepository, never()).findAll(any(Pageable.class));
+        verify(studentRepository, never()).count();
     }
     @Test
     void updateStudent_ShouldReturnUpdatedStudent() {
@@ -111,7 +188,62 @@ class StudentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1L, result.getId());
+        verify(studentRepository).findById(1L);
+        verify(courseRepository).findById(1L);
         verify(studentRepository).save(any(Student.class));
+        verifyNoMoreInteractions(studentRepository, courseRepository);
+    }
+    @Test
+    void updateStudent_ShouldPublishEventWithPreviousCourse() {
+        // Arrange
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(2L)).thenReturn(Optional.of(Course.builder().id(2L).name("Physics").build()));
+        when(studentRepository.save(any(Student.class))).thenReturn(student);
+        StudentDTO movedStudent = StudentDTO.builder()
+                .name("samira")
+                .email("samira@gmail.com")
+                .courseId(2L)
+                .build();
+        // Act
+        studentService.updateStudent(1L, movedStudent);
+        // Assert
+        verify(eventPublisher).publishEvent(argThat((EntityChangeEvent event) ->
+                event.getCourseId() == 2L && event.getPreviousCourseId() == 1L));
+    }
+    @Test
+    void patchStudent_WithNameOnly_ShouldNotReadCourse() {
+        // Arrange
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(studentRepository.save(any(Student.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Act
+        studentService.patchStudent(1L, StudentDTO.builder().name("sara").build());
+        // Assert
+        verify(studentRepository).save(argThat(saved ->
+                saved.getName().equals("sara") && saved.getEmail().equals("samira@gmail.com")));
+        verifyNoInteractions(courseRepository);
+        verify(eventPublisher).publishEvent(argThat((EntityChangeEvent event) ->
+                event.getCourseId() == 1L && event.getPreviousCourseId() == null));
+    }
+    @Test
+    void patchStudent_WithUnchangedValues_ShouldNotWrite() {
+        // Arrange
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        // Act
+        studentService.patchStudent(1L, StudentDTO.builder().email("samira@gmail.com").courseId(1L).build());
+        // Assert
+        verify(studentRepository).findById(1L);
+        verifyNoMoreInteractions(studentRepository, courseRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+    @Test
+    void patchStudent_WithNonExistentCourse_ShouldThrowException() {
+        // Arrange
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(99L)).thenReturn(Optional.empty());
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () ->
+                studentService.patchStudent(1L, StudentDTO.builder().courseId(99L).build()));
+        verify(studentRepository, never()).save(any(Student.class));
     }
     @Test
     void deleteStudent_ShouldDeleteWhenExists() {
@@ -144,6 +276,15 @@ class StudentServiceTest {
                 studentService.getStudentById(99L));
     }
     @Test
+    void getStudentById_WhenKnownMissing_ShouldNotQueryAgain() {
+        // Arrange
+        when(studentRepository.findById(99L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getStudentById(99L));
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getStudentById(99L));
+        verify(studentRepository, times(1)).findById(99L);
+    }
+    @Test
     void getStudentsByCourseId_WhenCourseHasNoStudents_ShouldReturnEmptyList() {
         // Arrange
         when(studentRepository.findByCourseId(99L)).thenReturn(List.of());
@@ -0,0 +1,172 @@
+package com.example.course_management_system.sharding;
+
+import com.example.course_management_system.datasource.Shard;
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.dto.StudentDTO;
+import com.example.course_management_system.exception.BadRequestException;
+import com.example.course_management_system.exception.ResourceNotFoundException;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.service.CourseService;
+import com.example.course_management_system.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding-test;DB_CLOSE_DELAY=-1",
+        "cms.sharding.urls=jdbc:h2:mem:sharding-test-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:sharding-test-2;DB_CLOSE_DELAY=-1",
+        "cms.roster-index.enabled=false",
+        "cms.roster-snapshots.enabled=false",
+        "cms.journal.enabled=false"
+})
+@ActiveProfiles("local-shards")
+class StudentShardingTest {
+
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private StudentShards studentShards;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final List<CourseDTO> courses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = Shard.HOME; shard < studentShards.count(); shard++) {
+            studentShards.write(shard, () -> studentRepository.deleteAllInBatch());
+        }
+        courseRepository.deleteAllInBatch();
+        courses.clear();
+        for (int i = 0; i < studentShards.count(); i++) {
+            courses.add(courseService.createCourse(CourseDTO.builder().name("course" + i).build()));
+        }
+    }
+
+    @Test
+    void createStudent_ShouldStoreOnCourseShardWithIdFromItsRange() {
+        for (CourseDTO course : courses) {
+            // Arrange
+            int shard = studentShards.shardOf(course.getId());
+            // Act
+            StudentDTO student = createStudent("s" + course.getId(), course);
+            // Assert
+            assertEquals(shard, studentShards.shardOfStudent(student.getId()));
+            assertEquals(student, studentService.getStudentById(student.getId()));
+            assertEquals(List.of(student), studentService.getStudentsByCourseId(course.getId()));
+            assertEquals(1L, (long) studentShards.read(shard, studentRepository::count));
+        }
+        assertEquals(3, studentShards.count());
+        assertEquals(3, courses.stream().mapToInt(course -> studentShards.shardOf(course.getId())).distinct().count());
+    }
+
+    @Test
+    void getAllStudents_ShouldMergeShardsInSortOrder() {
+        // Arrange
+        List<String> names = List.of("dora", "bob", "frank", "alice", "erin", "carl", "gina");
+        List<StudentDTO> created = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            created.add(createStudent(names.get(i), courses.get(i % courses.size())));
+        }
+        // Act
+        Page<StudentDTO> first = studentService.getAllStudents(0, 3, "name", "asc");
+        Page<StudentDTO> second = studentService.getAllStudents(1, 3, "name", "asc");
+        Page<StudentDTO> last = studentService.getAllStudents(2, 3, "name", "asc");
+        Slice<StudentDTO> descending = studentService.getStudentsSlice(0, 4, "name", "desc");
+        // Assert
+        assertEquals(7, first.getTotalElements());
+        assertEquals(List.of("alice", "bob", "carl", "dora", "erin", "frank", "gina"),
+                Stream.of(first, second, last).flatMap(page -> page.getContent().stream()).map(StudentDTO::getName).toList());
+        assertEquals(List.of("gina", "frank", "erin", "dora"), descending.getContent().stream().map(StudentDTO::getName).toList());
+        assertTrue(descending.hasNext());
+        assertEquals(created.size(), studentService.getStudentsByIds(created.stream().map(StudentDTO::getId).toList())
+                .getItems().size());
+    }
+
+    @Test
+    void updateStudent_ToCourseOnAnotherShard_ShouldRecreateStudentThere() {
+        // Arrange
+        CourseDTO from = courses.get(0);
+        CourseDTO to = courses.get(1);
+        StudentDTO student = createStudent("mover", from);
+        // Act
+        StudentDTO moved = studentService.updateStudent(student.getId(),
+                StudentDTO.builder().name("moved").email("mover@example.com").courseId(to.getId()).build());
+        // Assert
+        assertNotEquals(student.getId(), moved.getId());
+        assertEquals(studentShards.shardOf(to.getId()), studentShards.shardOfStudent(moved.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getStudentById(student.getId()));
+        assertEquals(List.of(moved), studentService.getStudentsByCourseId(to.getId()));
+        assertTrue(studentService.getStudentsByCourseId(from.getId()).isEmpty());
+    }
+
+    @Test
+    void getCourseByIdAndDeleteCourse_ShouldReachCourseShard() {
+        // Arrange
+        CourseDTO course = courses.stream().filter(c -> studentShards.shardOf(c.getId()) != Shard.HOME)
+                .findFirst().orElseThrow();
+        StudentDTO student = createStudent("enrolled", course);
+        // Act
+        List<StudentDTO> embedded = courseService.getCourseById(course.getId()).getStudents();
+        courseService.deleteCourse(course.getId());
+        // Assert
+        assertEquals(List.of(student), embedded);
+        assertFalse(studentShards.read(studentShards.shardOf(course.getId()),
+                () -> studentRepository.existsById(student.getId())));
+    }
+
+    @Test
+    void createCourse_WithRoster_ShouldStoreItOnCourseShard() {
+        for (int i = 0; i < studentShards.count(); i++) {
+            // Act
+            CourseDTO created = courseService.createCourse(CourseDTO.builder()
+                    .name("nested" + i)
+                    .students(List.of(
+                            StudentDTO.builder().name("a" + i).email("a" + i + "@example.com").build(),
+                            StudentDTO.builder().name("b" + i).email("b" + i + "@example.com").build()))
+                    .build());
+            // Assert
+            int shard = studentShards.shardOf(created.getId());
+            assertEquals(2, created.getStudents().size());
+            for (StudentDTO student : created.getStudents()) {
+                assertEquals(shard, studentShards.shardOfStudent(student.getId()));
+            }
+            assertEquals(created.getStudents(), studentService.getStudentsByCourseId(created.getId()));
+        }
+    }
+
+    @Test
+    void getAllStudents_PastMergeLimit_ShouldThrowBadRequest() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () ->
+                studentService.getAllStudents(ShardedPages.MAX_MERGED_ROWS / 10, 10, "name", "asc"));
+        assertThrows(BadRequestException.class, () ->
+                studentService.getStudentsSlice(Integer.MAX_VALUE / 2, 4, "name", "asc"));
+    }
+
+    private StudentDTO createStudent(String name, CourseDTO course) {
+        return studentService.createStudent(StudentDTO.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .courseId(course.getId())
+                .build());
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.course_management_system.snapshot;
+
+import com.example.course_management_system.dto.CourseDTO;
+import com.example.course_management_system.entity.Course;
+import com.example.course_management_system.entity.Student;
+import com.example.course_management_system.event.EntityChangeEvent;
+import com.example.course_management_system.event.EntityChangeEvent.ChangeType;
+import com.example.course_management_system.repository.CourseRepository;
+import com.example.course_management_system.repository.StudentRepository;
+import com.example.course_management_system.sharding.StudentShards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RosterSnapshotsTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private StudentRepository studentRepository;
+
+    private static final int MAX_STUDENTS = 200;
+
+    private RosterSnapshots rosterSnapshots;
+
+    private final Course course = Course.builder().id(1L).name("Math").build();
+
+    @BeforeEach
+    void setUp() {
+        rosterSnapshots = new RosterSnapshots(courseRepository, studentRepository,
+                new StudentShards(null, new String[0]), new ModelMapper(), new ObjectMapper(), true, 2, MAX_STUDENTS);
+    }
+
+    @Test
+    void findCourseJson_ShouldSerializeCourseWithRoster() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1))).thenReturn(List.of(student(1L, "samira")));
+        // Act
+        String json = asString(rosterSnapshots.findCourseJson(1L));
+        // Assert
+        assertEquals("{\"id\":1,\"name\":\"Math\",\"students\":"
+                + "[{\"id\":1,\"name\":\"samira\",\"email\":\"samira@gmail.com\",\"courseId\":1}],"
+                + "\"nextStudentsCursor\":null}", json);
+    }
+    @Test
+    void findCourseJson_WithLargeRoster_ShouldEmbedFirstStudentsAndCursor() throws Exception {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1)))
+                .thenReturn(LongStream.rangeClosed(1, CourseDTO.STUDENT_PREVIEW_SIZE + 5)
+                .mapToObj(id -> student(id, "s" + id))
+                .toList());
+        // Act
+        CourseDTO detail = new ObjectMapper().readValue(rosterSnapshots.findCourseJson(1L).orElseThrow(), CourseDTO.class);
+        // Assert
+        assertEquals(CourseDTO.STUDENT_PREVIEW_SIZE, detail.getStudents().size());
+        assertEquals((long) CourseDTO.STUDENT_PREVIEW_SIZE, detail.getNextStudentsCursor());
+        assertTrue(asString(rosterSnapshots.findRosterJson(1L)).contains("\"name\":\"s105\""));
+    }
+    @Test
+    void findCourseJson_WithTooLargeRoster_ShouldReadBoundedPageAndStepAside() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1)))
+                .thenReturn(LongStream.rangeClosed(1, MAX_STUDENTS + 1)
+                .mapToObj(id -> student(id, "s" + id))
+                .toList());
+        // Act
+        Optional<byte[]> courseJson = rosterSnapshots.findCourseJson(1L);
+        Optional<byte[]> rosterJson = rosterSnapshots.findRosterJson(1L);
+        // Assert
+        assertTrue(courseJson.isEmpty());
+        assertTrue(rosterJson.isEmpty());
+        verify(studentRepository, times(1)).findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1));
+        verify(studentRepository, never()).findByCourseId(1L);
+    }
+    @Test
+    void studentCreated_ShouldPatchOnlyAffectedCourse() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1))).thenReturn(List.of(student(1L, "samira")));
+        rosterSnapshots.findRosterJson(1L);
+        when(studentRepository.findById(2L)).thenReturn(Optional.of(student(2L, "sara")));
+        // Act
+        rosterSnapshots.onChange(EntityChangeEvent.student(ChangeType.CREATED, 2L, 1L));
+        String json = asString(rosterSnapshots.findRosterJson(1L));
+        // Assert
+        assertTrue(json.contains("\"name\":\"samira\"") && json.contains("\"name\":\"sara\""));
+        verify(studentRepository, times(1)).findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1));
+    }
+    @Test
+    void studentDeleted_ShouldRemoveItFromSnapshot() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1))).thenReturn(List.of(student(1L, "samira")));
+        rosterSnapshots.findRosterJson(1L);
+        // Act
+        rosterSnapshots.onChange(EntityChangeEvent.student(ChangeType.DELETED, 1L, 1L));
+        // Assert
+        assertEquals("[]", asString(rosterSnapshots.findRosterJson(1L)));
+    }
+    @Test
+    void changeDuringLoad_ShouldNotKeepSnapshot() {
+        // Arrange
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(studentRepository.findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1))).thenAnswer(invocation -> {
+            rosterSnapshots.onChange(EntityChangeEvent.student(ChangeType.CREATED, 2L, 1L));
+            return List.of(student(1L, "samira"));
+        });
+        // Act
+        rosterSnapshots.findRosterJson(1L);
+        rosterSnapshots.findRosterJson(1L);
+        // Assert
+        assertEquals(0, rosterSnapshots.size());
+        verify(studentRepository, times(2)).findRosterPage(1L, 0L, Limit.of(MAX_STUDENTS + 1));
+        verify(studentRepository, never()).findById(2L);
+    }
+    @Test
+    void fullCache_ShouldEvictLeastRecentlyReadCourse() {
+        // Arrange
+        for (long id = 1; id <= 3; id++) {
+            Course other = Course.builder().id(id).name("c" + id).build();
+            when(courseRepository.findById(id)).thenReturn(Optional.of(other));
+        }
+        rosterSnapshots.findRosterJson(1L);
+        rosterSnapshots.findRosterJson(2L);
+        rosterSnapshots.findRosterJson(1L);
+        // Act
+        rosterSnapshots.findRosterJson(3L);
+        rosterSnapshots.findRosterJson(1L);
+        rosterSnapshots.findRosterJson(2L);
+        // Assert
+        assertEquals(2, rosterSnapshots.size());
+        verify(courseRepository, times(1)).findById(1L);
+        verify(courseRepository, times(2)).findById(2L);
+    }
+    @Test
+    void findCourseJson_WhenCourseMissing_ShouldReturnEmpty() {
+        // Arrange
+        when(courseRepository.findById(99L)).thenReturn(Optional.empty());
+        // Act & Assert
+        assertTrue(rosterSnapshots.findCourseJson(99L).isEmpty());
+    }
+
+    private Student student(Long id, String name) {
+        return Student.builder().id(id).name(name).email(name + "@gmail.com").course(course).build();
+    }
+
+    private static String asString(Optional<byte[]> json) {
+        return new String(json.orElseThrow(), StandardCharsets.UTF_8);
+    }
+}
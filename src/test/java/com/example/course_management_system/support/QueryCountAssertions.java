@@ -0,0 +1,34 @@
+package com.example.course_management_system.support;
+
+import com.example.course_management_system.monitoring.SqlStatementCounter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Query-count assertions for tests that run against a real DataSource.
+ * <p>
+ * Every statement executed through the proxied DataSource is counted against
+ * the calling thread, so {@link #resetStatements} followed by a service call
+ * and {@link #assertStatements} checks exactly what that call sent to the
+ * database, lazy loads and flushes included. A JDBC batch counts once.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void resetStatements() {
+        SqlStatementCounter.reset();
+    }
+
+    public static SqlStatementCounter.Counts statements() {
+        return SqlStatementCounter.current();
+    }
+
+    public static void assertStatements(long expected) {
+        assertEquals(expected, statements().getTotal(), "SQL statements");
+    }
+
+    public static void assertSelects(long expected) {
+        assertEquals(expected, statements().getSelect(), "SQL selects");
+    }
+}
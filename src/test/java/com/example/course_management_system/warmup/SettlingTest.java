@@ -0,0 +1,40 @@
+package com.example.course_management_system.warmup;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlingTest {
+
+    @Test
+    void steadyRounds_ShouldSettleAfterMinimumRounds() {
+        // Arrange
+        Settling settling = new Settling(6, 2, 0.1);
+        // Act & Assert
+        for (int round = 1; round < 6; round++) {
+            assertFalse(settling.record(100));
+        }
+        assertTrue(settling.record(100));
+    }
+    @Test
+    void improvingRounds_ShouldNotSettle() {
+        // Arrange
+        Settling settling = new Settling(1, 2, 0.1);
+        // Act
+        for (long nanos = 1000; nanos > 100; nanos -= 100) {
+            settling.record(nanos);
+        }
+        // Assert
+        assertFalse(settling.isSettled());
+    }
+    @Test
+    void singleFastRound_ShouldNotKeepLatencyFromSettling() {
+        // Arrange
+        Settling settling = new Settling(1, 3, 0.1);
+        // Act
+        for (long nanos : new long[] {100, 100, 100, 100, 20, 100}) {
+            settling.record(nanos);
+        }
+        // Assert
+        assertTrue(settling.isSettled());
+    }
+}